@@ -0,0 +1,55 @@
+package org.pancakelab.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.pancakelab.http.ApiHandler;
+import org.pancakelab.http.StubHttpExchange;
+import org.pancakelab.model.Order;
+import org.pancakelab.service.ServiceFactory;
+import org.pancakelab.util.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code ApiHandler.handle} for {@code GET /api/orders/{id}} with the log level at INFO,
+ * where every request logs a line, and at WARN, where it logs nothing. Log output goes
+ * to a discarding stream so only formatting and handler cost is measured, not the
+ * terminal. Run with {@code -prof gc} for allocation per request.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApiHandlerLoggingBenchmark {
+
+    @Param({"INFO", "WARN"})
+    public String level;
+
+    private ApiHandler handler;
+    private StubHttpExchange exchange;
+    private String uri;
+
+    @Setup
+    public void setUp() {
+        // Must happen before Configuration and Logger are first touched
+        System.setProperty("rate.limit.max.requests", String.valueOf(Integer.MAX_VALUE));
+        System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+        Logger.setLevel(level);
+
+        ServiceFactory services = new ServiceFactory();
+        Order order = services.getOrderService().createOrder(1, 1);
+        handler = new ApiHandler(services);
+        uri = "/api/orders/" + order.getId();
+        exchange = new StubHttpExchange("GET", uri);
+    }
+
+    @Benchmark
+    public int handle() throws IOException {
+        handler.handle(exchange.reset("GET", uri, new byte[0]));
+        return exchange.getResponseCode();
+    }
+}
@@ -0,0 +1,80 @@
+package org.pancakelab.benchmark;
+
+import org.pancakelab.model.Order;
+import org.pancakelab.model.OrderState;
+import org.pancakelab.service.impl.OrderLogFileWriter;
+import org.pancakelab.service.impl.OrderLogServiceImpl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Durable throughput of the audit log file writer for different group-commit sizes.
+ * Events are produced as fast as the writer persists them (never more than half the ring
+ * ahead, so nothing is dropped) and the rate at which they become fsynced is reported.
+ * {@code commit.bytes=1} is the fsync-per-event baseline.
+ * <p>
+ * Arguments (all optional): {@code commitBytes=1,4096,65536 events=20000 dir=target/audit-bench}
+ */
+public class AuditLogWriterBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        long[] commitBytes = {1, 4096, 65536};
+        int events = 20_000;
+        Path directory = Path.of("target", "audit-bench");
+        for (String arg : args) {
+            String[] kv = arg.split("=", 2);
+            switch (kv[0]) {
+                case "commitBytes" -> commitBytes = Arrays.stream(kv[1].split(",")).mapToLong(Long::parseLong).toArray();
+                case "events" -> events = Integer.parseInt(kv[1]);
+                case "dir" -> directory = Path.of(kv[1]);
+                default -> throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+        }
+
+        System.out.printf("%-12s %10s %12s %10s %12s%n", "commit.bytes", "events", "events/s", "fsyncs", "events/fsync");
+        for (long commit : commitBytes) {
+            deleteRecursively(directory);
+            run(directory, commit, events);
+        }
+        deleteRecursively(directory);
+    }
+
+    private static void run(Path directory, long commitBytes, int events) throws IOException {
+        Order order = new Order(1, 1);
+        int window = Integer.getInteger("order.log.capacity", 65536) / 2;
+        OrderLogFileWriter writer = OrderLogServiceImpl.startFileWriter(directory, 64L * 1024 * 1024, commitBytes, 50);
+        long base = writer.getPersistedSequence();
+        long start = System.nanoTime();
+        for (int i = 0; i < events; i++) {
+            while (base + i - writer.getPersistedSequence() >= window) {
+                Thread.onSpinWait();
+            }
+            OrderLogServiceImpl.logOrderStateChange(order, OrderState.OPEN, OrderState.COMPLETED);
+        }
+        while (writer.getPersistedSequence() < base + events) {
+            Thread.onSpinWait();
+        }
+        long elapsed = System.nanoTime() - start;
+        OrderLogServiceImpl.stopFileWriter();
+
+        long syncs = writer.getSyncCount();
+        System.out.printf("%-12d %10d %12.0f %10d %12.1f%n", commitBytes, events, events * 1e9 / elapsed, syncs,
+                syncs == 0 ? 0.0 : (double) events / syncs);
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package org.pancakelab.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Headless regression run of the hot-path benchmarks, writing JMH's JSON results so two
+ * commits can be compared.
+ * <p>
+ * {@code run} (the default) executes the service, JSON, router and rate limiter
+ * benchmarks without their legacy baselines and writes {@code out} (default
+ * {@code target/jmh/results.json}). Any other argument is passed to JMH, e.g.
+ * {@code -prof gc} or {@code -f 2}. {@code compare} prints the score change of every
+ * benchmark present in both files and exits with 1 when one got slower by more than
+ * {@code threshold} percent (default 10) and by more than the two error margins.
+ * <pre>
+ * BenchmarkSuite out=target/jmh/base.json
+ * BenchmarkSuite compare target/jmh/base.json target/jmh/head.json threshold=10
+ * </pre>
+ */
+public class BenchmarkSuite {
+    private static final String INCLUDE = "org\\.pancakelab\\.benchmark\\."
+            + "(OrderServiceBenchmark|PancakeServiceBenchmark|JsonUtilBenchmark|RouterBenchmark|RateLimiterBenchmark)\\.";
+    // The legacy implementations are kept for the one-off comparisons, not for regressions
+    private static final String EXCLUDE = "\\.(regex\\w*|legacy\\w*)$";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("compare")) {
+            if (args.length < 3) {
+                throw new IllegalArgumentException("Usage: compare <base.json> <head.json> [threshold=10]");
+            }
+            double threshold = args.length > 3 ? Double.parseDouble(args[3].substring("threshold=".length())) : 10;
+            System.exit(compare(Path.of(args[1]), Path.of(args[2]), threshold) ? 0 : 1);
+        }
+
+        Path out = Path.of("target/jmh/results.json");
+        List<String> jmhArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("out=")) {
+                out = Path.of(arg.substring("out=".length()));
+            } else if (!arg.equals("run")) {
+                jmhArgs.add(arg);
+            }
+        }
+        Files.createDirectories(out.toAbsolutePath().getParent());
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(jmhArgs.toArray(new String[0])))
+                .include(INCLUDE)
+                .exclude(EXCLUDE)
+                .param("algorithm", "FIXED_WINDOW", "SLIDING_WINDOW", "TOKEN_BUCKET")
+                .resultFormat(ResultFormatType.JSON)
+                .result(out.toString())
+                .build()).run();
+    }
+
+    /**
+     * Prints base and head scores side by side; returns false if any benchmark regressed.
+     */
+    private static boolean compare(Path basePath, Path headPath, double thresholdPercent) throws IOException {
+        Map<String, Score> base = readScores(basePath);
+        Map<String, Score> head = readScores(headPath);
+        boolean passed = true;
+        System.out.printf("%-74s %14s %14s %8s%n", "benchmark", "base", "head", "change");
+        for (Map.Entry<String, Score> entry : head.entrySet()) {
+            Score before = base.get(entry.getKey());
+            if (before == null) {
+                continue;
+            }
+            Score after = entry.getValue();
+            double change = (after.value - before.value) / before.value * 100;
+            // Time per op should go down, ops per time up
+            double worse = after.higherIsBetter() ? -change : change;
+            boolean regressed = worse > thresholdPercent
+                    && Math.abs(after.value - before.value) > before.error + after.error;
+            passed &= !regressed;
+            System.out.printf("%-74s %14s %14s %+7.1f%%%s%n", entry.getKey(), before, after, change,
+                    regressed ? "  REGRESSION" : "");
+        }
+        return passed;
+    }
+
+    private static final Pattern BENCHMARK = Pattern.compile("\"benchmark\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern MODE = Pattern.compile("\"mode\"\\s*:\\s*\"(\\w+)\"");
+    private static final Pattern PARAMS = Pattern.compile("\"params\"\\s*:\\s*\\{([^}]*)}");
+    private static final Pattern PARAM = Pattern.compile("\"([^\"]+)\"\\s*:\\s*\"([^\"]*)\"");
+    private static final Pattern SCORE = Pattern.compile("\"primaryMetric\"\\s*:\\s*\\{\\s*\"score\"\\s*:\\s*([^,]+),"
+            + "\\s*\"scoreError\"\\s*:\\s*([^,]+),[\\s\\S]*?\"scoreUnit\"\\s*:\\s*\"([^\"]+)\"");
+
+    /**
+     * Primary score of every result in a JMH JSON file, keyed by benchmark and parameters.
+     * Each result object starts with its {@code jmhVersion}, which is used to split them.
+     */
+    private static Map<String, Score> readScores(Path file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        String[] results = Files.readString(file).split("\"jmhVersion\"");
+        for (int i = 1; i < results.length; i++) {
+            String result = results[i];
+            Matcher benchmark = BENCHMARK.matcher(result);
+            Matcher mode = MODE.matcher(result);
+            Matcher score = SCORE.matcher(result);
+            if (!benchmark.find() || !mode.find() || !score.find()) {
+                throw new IOException("Unrecognised JMH result in " + file);
+            }
+            StringBuilder key = new StringBuilder(benchmark.group(1).replace("org.pancakelab.benchmark.", ""));
+            Matcher params = PARAMS.matcher(result);
+            if (params.find()) {
+                Matcher param = PARAM.matcher(params.group(1));
+                while (param.find()) {
+                    key.append(' ').append(param.group(1)).append('=').append(param.group(2));
+                }
+            }
+            scores.put(key.toString(), new Score(mode.group(1), parse(score.group(1)), parse(score.group(2)),
+                    score.group(3)));
+        }
+        return scores;
+    }
+
+    private static double parse(String number) {
+        String value = number.trim().replace("\"", "");
+        return value.equals("NaN") ? 0 : Double.parseDouble(value);
+    }
+
+    private record Score(String mode, double value, double error, String unit) {
+        boolean higherIsBetter() {
+            return mode.equals("thrpt");
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.3f %s", value, unit);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package org.pancakelab.benchmark;
+
+import org.pancakelab.http.PancakeHttpServer;
+import org.pancakelab.http.PancakeHttpServer.ExecutorMode;
+import org.pancakelab.model.Order;
+import org.pancakelab.service.ServiceFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load test of each {@code server.executor} mode: N concurrent connections
+ * each keep exactly one {@code GET /api/orders/{id}} in flight for a fixed duration.
+ * Reports throughput and p50/p99 latency per mode and concurrency level.
+ * <p>
+ * Arguments (all optional): {@code modes=fixed,forkjoin,virtual connections=100,1000,10000 seconds=10}
+ */
+public class ExecutorModeLoadBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        // Must happen before Configuration is first touched
+        System.setProperty("rate.limit.max.requests", String.valueOf(Integer.MAX_VALUE));
+        System.setProperty("server.backlog.size", "10000");
+
+        List<ExecutorMode> modes = List.of(ExecutorMode.values());
+        int[] connections = {100, 1_000, 10_000};
+        int seconds = 10;
+        for (String arg : args) {
+            String[] kv = arg.split("=", 2);
+            switch (kv[0]) {
+                case "modes" -> modes = Arrays.stream(kv[1].split(",")).map(ExecutorMode::fromString).toList();
+                case "connections" -> connections = Arrays.stream(kv[1].split(",")).mapToInt(Integer::parseInt).toArray();
+                case "seconds" -> seconds = Integer.parseInt(kv[1]);
+                default -> throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+        }
+
+        List<String> report = new ArrayList<>();
+        report.add(String.format("%-9s %12s %12s %10s %10s %8s", "mode", "connections", "req/s", "p50 ms", "p99 ms", "errors"));
+        for (ExecutorMode mode : modes) {
+            for (int concurrency : connections) {
+                report.add(run(mode, concurrency, Duration.ofSeconds(seconds)));
+            }
+        }
+        report.forEach(System.out::println);
+    }
+
+    private static String run(ExecutorMode mode, int concurrency, Duration duration) throws Exception {
+        ServiceFactory services = new ServiceFactory();
+        Order order = services.getOrderService().createOrder(1, 1);
+        PancakeHttpServer server = new PancakeHttpServer(0, 10, mode, services);
+        server.start();
+
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(4);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clientExecutor)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:" + server.getPort() + "/api/orders/" + order.getId()))
+                .GET()
+                .build();
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        AtomicInteger errors = new AtomicInteger();
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicInteger active = new AtomicInteger(concurrency);
+        Object done = new Object();
+
+        for (int i = 0; i < concurrency; i++) {
+            new Object() {
+                void next() {
+                    if (System.nanoTime() >= deadline) {
+                        if (active.decrementAndGet() == 0) {
+                            synchronized (done) {
+                                done.notifyAll();
+                            }
+                        }
+                        return;
+                    }
+                    long start = System.nanoTime();
+                    client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                            .whenComplete((response, failure) -> {
+                                if (failure != null || response.statusCode() != 200) {
+                                    errors.incrementAndGet();
+                                } else {
+                                    recorder.record(System.nanoTime() - start);
+                                }
+                                next();
+                            });
+                }
+            }.next();
+        }
+
+        synchronized (done) {
+            while (active.get() > 0) {
+                done.wait(1000);
+            }
+        }
+        server.stop();
+        clientExecutor.shutdownNow();
+
+        double seconds = duration.toNanos() / 1e9;
+        return String.format("%-9s %12d %12.0f %10.2f %10.2f %8d",
+                mode.name().toLowerCase(), concurrency, recorder.count() / seconds,
+                recorder.percentile(0.50) / 1e6, recorder.percentile(0.99) / 1e6, errors.get());
+    }
+
+    /**
+     * Log-linear latency histogram: 64 sub-buckets per power of two of nanoseconds,
+     * good to ~1.5% relative error without storing every sample.
+     */
+    static class LatencyRecorder {
+        private static final int SUB_BUCKETS = 64;
+        private final AtomicLong[] buckets = new AtomicLong[64 * SUB_BUCKETS];
+        private final AtomicLong count = new AtomicLong();
+
+        LatencyRecorder() {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new AtomicLong();
+            }
+        }
+
+        void record(long nanos) {
+            buckets[index(Math.max(1, nanos))].incrementAndGet();
+            count.incrementAndGet();
+        }
+
+        long count() {
+            return count.get();
+        }
+
+        long percentile(double p) {
+            long target = (long) Math.ceil(count.get() * p);
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i].get();
+                if (seen >= target && seen > 0) {
+                    return upperBound(i);
+                }
+            }
+            return 0;
+        }
+
+        private static int index(long value) {
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            if (exponent < 6) {
+                return (int) value;
+            }
+            int sub = (int) ((value >>> (exponent - 6)) & (SUB_BUCKETS - 1));
+            return (exponent - 5) * SUB_BUCKETS + sub;
+        }
+
+        private static long upperBound(int index) {
+            if (index < SUB_BUCKETS) {
+                return index;
+            }
+            int exponent = index / SUB_BUCKETS + 5;
+            long sub = index % SUB_BUCKETS;
+            return ((SUB_BUCKETS + sub + 1) << (exponent - 6)) - 1;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package org.pancakelab.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The requests of an IntelliJ HTTP client file ({@code docs/httpClient/*.http}) in order,
+ * for replaying them as a load workflow.
+ * <p>
+ * Requests are separated by {@code ###} lines. Each has a request line, headers, an
+ * optional body and an optional {@code > {% ... %}} response handler; of the handler
+ * only {@code client.global.set("name", response.body.field)} is understood, capturing
+ * a top-level string field of the JSON response into a {@code {{name}}} variable for
+ * later requests. The scheme and host of every URL are dropped so the script can target
+ * any server.
+ */
+final class HttpScript {
+    private static final Pattern REQUEST_LINE = Pattern.compile("^(GET|POST|PUT|PATCH|DELETE|HEAD|OPTIONS)\\s+(\\S+)");
+    private static final Pattern CAPTURE = Pattern.compile(
+            "client\\.global\\.set\\(\\s*\"(\\w+)\"\\s*,\\s*response\\.body\\.(\\w+)\\s*\\)");
+    private static final Pattern VARIABLE = Pattern.compile("\\{\\{(\\w+)}}");
+
+    /**
+     * One request of the script. {@code endpoint} is the method and path with variables
+     * shown as {@code {name}}, which groups the statistics of requests to the same route.
+     */
+    record Step(String method, String path, Map<String, String> headers, String body,
+                Map<String, String> captures, String endpoint) {
+
+        String resolvePath(Map<String, String> variables) {
+            Matcher matcher = VARIABLE.matcher(path);
+            StringBuilder resolved = new StringBuilder();
+            while (matcher.find()) {
+                String value = variables.get(matcher.group(1));
+                if (value == null) {
+                    throw new IllegalStateException("Variable " + matcher.group(1) + " was never captured");
+                }
+                matcher.appendReplacement(resolved, Matcher.quoteReplacement(value));
+            }
+            return matcher.appendTail(resolved).toString();
+        }
+
+        /**
+         * Stores every configured capture found in the JSON {@code response} body.
+         */
+        void capture(String response, Map<String, String> variables) {
+            for (Map.Entry<String, String> capture : captures.entrySet()) {
+                Matcher field = Pattern.compile("\"" + capture.getValue() + "\"\\s*:\\s*\"([^\"]*)\"").matcher(response);
+                if (field.find()) {
+                    variables.put(capture.getKey(), field.group(1));
+                }
+            }
+        }
+    }
+
+    private HttpScript() {
+    }
+
+    static List<Step> parse(Path file) throws IOException {
+        List<Step> steps = new ArrayList<>();
+        List<String> block = new ArrayList<>();
+        for (String line : Files.readAllLines(file)) {
+            if (line.startsWith("###")) {
+                parseBlock(block, steps);
+                block.clear();
+            } else {
+                block.add(line);
+            }
+        }
+        parseBlock(block, steps);
+        if (steps.isEmpty()) {
+            throw new IllegalArgumentException("No requests in " + file);
+        }
+        return steps;
+    }
+
+    private static void parseBlock(List<String> lines, List<Step> steps) {
+        int i = 0;
+        Matcher requestLine = null;
+        for (; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#") || line.startsWith("//")) {
+                continue;
+            }
+            requestLine = REQUEST_LINE.matcher(line);
+            if (!requestLine.find()) {
+                throw new IllegalArgumentException("Expected a request line: " + line);
+            }
+            i++;
+            break;
+        }
+        if (requestLine == null) {
+            return;
+        }
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (; i < lines.size() && !lines.get(i).isBlank(); i++) {
+            String[] header = lines.get(i).split(":", 2);
+            headers.put(header[0].trim(), header[1].trim());
+        }
+
+        StringBuilder body = new StringBuilder();
+        Map<String, String> captures = new LinkedHashMap<>();
+        boolean handler = false;
+        for (; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.startsWith("> {%")) {
+                handler = true;
+            }
+            if (handler) {
+                Matcher capture = CAPTURE.matcher(line);
+                while (capture.find()) {
+                    captures.put(capture.group(1), capture.group(2));
+                }
+            } else {
+                body.append(line).append('\n');
+            }
+        }
+
+        String method = requestLine.group(1);
+        String path = requestLine.group(2).replaceFirst("^https?://[^/]+", "");
+        String endpoint = method + " " + VARIABLE.matcher(path).replaceAll("{$1}");
+        steps.add(new Step(method, path, headers, body.toString().strip(), captures, endpoint));
+    }
+}
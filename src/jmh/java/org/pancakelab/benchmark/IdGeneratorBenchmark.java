@@ -0,0 +1,45 @@
+package org.pancakelab.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.pancakelab.model.IdGenerator;
+import org.pancakelab.model.Ids;
+import org.pancakelab.model.Pancake;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Id creation throughput: the time-ordered generator against {@code UUID.randomUUID()}
+ * and its shared {@code SecureRandom}, alone and inside {@code new Pancake()}.
+ * Scale with {@code -t 1}, {@code -t 4}, {@code -t 32}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdGeneratorBenchmark {
+
+    @Benchmark
+    public UUID timeOrdered() {
+        return IdGenerator.TIME_ORDERED.nextId();
+    }
+
+    @Benchmark
+    public UUID random() {
+        return IdGenerator.RANDOM.nextId();
+    }
+
+    @Benchmark
+    public Pancake pancakeTimeOrdered() {
+        Ids.use(IdGenerator.TIME_ORDERED);
+        return new Pancake();
+    }
+
+    @Benchmark
+    public Pancake pancakeRandom() {
+        Ids.use(IdGenerator.RANDOM);
+        return new Pancake();
+    }
+}
@@ -0,0 +1,119 @@
+package org.pancakelab.benchmark;
+
+import org.pancakelab.model.Ingredient;
+import org.pancakelab.model.Pancake;
+
+import java.lang.ref.Reference;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Retained heap of N pancakes with 3 ingredients each, built the way requests build them
+ * (every name freshly decoded from a request body): interned {@link Ingredient}s against
+ * the former layout with its own UUID object and name String per ingredient.
+ * <p>
+ * Arguments (all optional): {@code pancakes=1000000}
+ */
+public class IngredientFootprintBenchmark {
+    private static final String[] MENU = {
+            "Dark Chocolate", "Milk Chocolate", "Hazelnuts", "Whipped Cream", "Berries", "Maple Syrup",
+            "Banana", "Strawberries", "Blueberries", "Honey", "Cinnamon", "Caramel", "Peanut Butter",
+            "Coconut", "Almonds", "Lemon", "Sugar", "Vanilla Ice Cream", "Nutella", "Raspberries",
+            "Mango", "Kiwi", "Pecans", "Walnuts", "Bacon", "Cheese", "Ham", "Spinach", "Mushrooms", "Egg"
+    };
+    private static final byte[][] ENCODED_MENU = new byte[MENU.length][];
+
+    static {
+        for (int i = 0; i < MENU.length; i++) {
+            ENCODED_MENU[i] = MENU[i].getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    public static void main(String[] args) {
+        int pancakes = 1_000_000;
+        for (String arg : args) {
+            String[] kv = arg.split("=", 2);
+            if (!kv[0].equals("pancakes")) {
+                throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+            pancakes = Integer.parseInt(kv[1]);
+        }
+
+        int count = pancakes;
+        System.out.printf("%-10s %12s %14s %16s%n", "layout", "pancakes", "retained MB", "bytes/ingredient");
+        report("legacy", count, measure(() -> buildLegacy(count)));
+        report("interned", count, measure(() -> buildInterned(count)));
+    }
+
+    private static Object buildInterned(int count) {
+        List<Pancake> pancakes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Pancake pancake = new Pancake();
+            for (int n = 0; n < 3; n++) {
+                pancake.addIngredient(new Ingredient(decodeName(i + n)));
+            }
+            pancakes.add(pancake);
+        }
+        return pancakes;
+    }
+
+    private static Object buildLegacy(int count) {
+        List<LegacyPancake> pancakes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LegacyPancake pancake = new LegacyPancake();
+            for (int n = 0; n < 3; n++) {
+                pancake.ingredients.add(new LegacyIngredient(decodeName(i + n)));
+            }
+            pancakes.add(pancake);
+        }
+        return pancakes;
+    }
+
+    // A new String per ingredient, as the JSON reader produces for each request
+    private static String decodeName(int i) {
+        return new String(ENCODED_MENU[i % MENU.length], StandardCharsets.UTF_8);
+    }
+
+    private static long measure(Supplier<Object> build) {
+        long before = usedHeap();
+        Object retained = build.get();
+        long after = usedHeap();
+        Reference.reachabilityFence(retained);
+        return after - before;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static void report(String layout, int pancakes, long bytes) {
+        System.out.printf("%-10s %12d %14.1f %16.1f%n", layout, pancakes, bytes / 1048576.0, bytes / (pancakes * 3.0));
+    }
+
+    /**
+     * The former pancake with a list of per-request ingredients.
+     */
+    static class LegacyPancake {
+        private final UUID id = UUID.randomUUID();
+        private final List<LegacyIngredient> ingredients = new ArrayList<>();
+    }
+
+    /**
+     * The former ingredient: its own UUID object and its own name String.
+     */
+    static class LegacyIngredient {
+        private final UUID id = UUID.randomUUID();
+        private final String name;
+
+        LegacyIngredient(String name) {
+            this.name = name;
+        }
+    }
+}
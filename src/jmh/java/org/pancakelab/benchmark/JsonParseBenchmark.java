@@ -0,0 +1,60 @@
+package org.pancakelab.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.pancakelab.http.JsonUtil;
+import org.pancakelab.http.StubHttpExchange;
+import org.pancakelab.http.dto.CreateOrderRequest;
+import org.pancakelab.http.dto.IngredientRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request body parsing: streaming {@link JsonUtil#fromJson} against the former
+ * String-joining parser, for the two request DTOs the API accepts.
+ * Run with {@code -prof gc} to compare allocation per request.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonParseBenchmark {
+    private static final byte[] CREATE_ORDER = """
+            {
+                "building": 10,
+                "room": 20
+            }""".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] INGREDIENT = """
+            {
+                "name": "dark chocolate"
+            }""".getBytes(StandardCharsets.UTF_8);
+
+    private StubHttpExchange exchange;
+
+    @Setup
+    public void setUp() {
+        exchange = new StubHttpExchange("POST", "/api/orders");
+    }
+
+    @Benchmark
+    public CreateOrderRequest streamingCreateOrder() {
+        return JsonUtil.fromJson(exchange.reset(CREATE_ORDER), CreateOrderRequest.class);
+    }
+
+    @Benchmark
+    public CreateOrderRequest legacyCreateOrder() {
+        return LegacyJsonParser.fromJson(exchange.reset(CREATE_ORDER), CreateOrderRequest.class);
+    }
+
+    @Benchmark
+    public IngredientRequest streamingIngredient() {
+        return JsonUtil.fromJson(exchange.reset(INGREDIENT), IngredientRequest.class);
+    }
+
+    @Benchmark
+    public IngredientRequest legacyIngredient() {
+        return LegacyJsonParser.fromJson(exchange.reset(INGREDIENT), IngredientRequest.class);
+    }
+}
@@ -0,0 +1,79 @@
+package org.pancakelab.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.pancakelab.http.StubHttpExchange;
+import org.pancakelab.http.controller.OrderController;
+import org.pancakelab.http.dto.OrderResponse;
+import org.pancakelab.model.Ingredient;
+import org.pancakelab.model.Order;
+import org.pancakelab.service.OrderService;
+import org.pancakelab.service.PancakeService;
+import org.pancakelab.service.ServiceFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code GET /api/orders} response rendering: the controller path through the
+ * per-type serializers against the former reflective serializer. Run with
+ * {@code -prof gc}; {@code gc.alloc.rate.norm} is the allocation per request.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializeBenchmark {
+    private static final String[] TOPPINGS = {"Dark Chocolate", "Berries", "Whipped Cream"};
+
+    @Param({"10", "100"})
+    public int orderCount;
+
+    private OrderService orderService;
+    private OrderController orderController;
+    private StubHttpExchange exchange;
+
+    @Setup
+    public void setUp() {
+        ServiceFactory services = new ServiceFactory();
+        orderService = services.getOrderService();
+        PancakeService pancakeService = services.getPancakeService();
+        for (int i = 0; i < orderCount; i++) {
+            Order order = orderService.createOrder(i % 50 + 1, i % 100 + 1);
+            for (int p = 0; p < 3; p++) {
+                UUID pancakeId = pancakeService.createPancake(order.getId());
+                for (int t = 0; t < 2; t++) {
+                    pancakeService.addIngredientToPancake(order.getId(), pancakeId, new Ingredient(TOPPINGS[(p + t) % 3]));
+                }
+            }
+        }
+        orderController = new OrderController(orderService);
+        exchange = new StubHttpExchange("GET", "/api/orders");
+    }
+
+    @Benchmark
+    public int getAllOrders() throws IOException {
+        orderController.getAllOrders(exchange.reset(new byte[0]), Map.of());
+        return exchange.getResponseCode();
+    }
+
+    @Benchmark
+    public int legacyGetAllOrders() throws IOException {
+        exchange.reset(new byte[0]);
+        List<OrderResponse> responses = orderService.getAllOrders().stream()
+                .map(OrderResponse::fromOrder)
+                .toList();
+        byte[] body = LegacyJsonSerializer.toJson(responses).getBytes();
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(body);
+        }
+        return exchange.getResponseCode();
+    }
+}
@@ -0,0 +1,59 @@
+package org.pancakelab.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.pancakelab.http.JsonUtil;
+import org.pancakelab.http.dto.CreateOrderRequest;
+import org.pancakelab.http.dto.OrderResponse;
+import org.pancakelab.model.Ingredient;
+import org.pancakelab.model.Order;
+import org.pancakelab.model.Pancake;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JsonUtil} round trips without the HTTP layer: an order of three pancakes with
+ * two ingredients each serialized to bytes and read back, and the create-order request
+ * body parsed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonUtilBenchmark {
+    private static final byte[] CREATE_ORDER = "{\"building\": 10, \"room\": 20}".getBytes(StandardCharsets.UTF_8);
+
+    private OrderResponse order;
+    private byte[] orderJson;
+
+    @Setup
+    public void setUp() {
+        Order model = new Order(10, 20);
+        for (int p = 0; p < 3; p++) {
+            Pancake pancake = new Pancake();
+            pancake.addIngredient(new Ingredient("Dark Chocolate"));
+            pancake.addIngredient(new Ingredient("Berries"));
+            model.addPancake(pancake);
+        }
+        order = OrderResponse.fromOrder(model);
+        orderJson = JsonUtil.serialize(order);
+    }
+
+    @Benchmark
+    public byte[] serializeOrder() {
+        return JsonUtil.serialize(order);
+    }
+
+    @Benchmark
+    public OrderResponse deserializeOrder() {
+        return JsonUtil.deserialize(new ByteArrayInputStream(orderJson), OrderResponse.class);
+    }
+
+    @Benchmark
+    public CreateOrderRequest deserializeCreateOrder() {
+        return JsonUtil.deserialize(new ByteArrayInputStream(CREATE_ORDER), CreateOrderRequest.class);
+    }
+}
@@ -0,0 +1,54 @@
+package org.pancakelab.benchmark;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * The former reflective, String-concatenating serializer, kept only as a baseline for
+ * {@link JsonSerializeBenchmark}.
+ */
+class LegacyJsonSerializer {
+
+    static String toJson(Object obj) {
+        if (obj == null) return "null";
+        if (obj instanceof Map) return mapToJson((Map<?, ?>) obj);
+        if (obj instanceof List) return listToJson((List<?>) obj);
+        if (obj instanceof String) return "\"" + obj + "\"";
+        if (obj instanceof Number || obj instanceof Boolean) return obj.toString();
+        if (obj instanceof UUID) return "\"" + obj + "\"";
+        if (obj instanceof Enum<?>) return "\"" + obj + "\"";
+        return objectToJson(obj);
+    }
+
+    private static String mapToJson(Map<?, ?> map) {
+        return "{" + map.entrySet().stream()
+                .map(e -> "\"" + e.getKey() + "\":" + toJson(e.getValue()))
+                .collect(Collectors.joining(",")) + "}";
+    }
+
+    private static String listToJson(List<?> list) {
+        return "[" + list.stream()
+                .map(LegacyJsonSerializer::toJson)
+                .collect(Collectors.joining(",")) + "]";
+    }
+
+    private static String objectToJson(Object obj) {
+        try {
+            Map<String, Object> map = new HashMap<>();
+            for (var field : obj.getClass().getDeclaredFields()) {
+                field.setAccessible(true);
+                Object value = field.get(obj);
+                if (value != null) {
+                    map.put(field.getName(), value);
+                }
+                field.setAccessible(false);
+            }
+            return mapToJson(map);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to serialize to JSON", e);
+        }
+    }
+}
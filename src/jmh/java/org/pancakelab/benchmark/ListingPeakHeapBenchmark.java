@@ -0,0 +1,90 @@
+package org.pancakelab.benchmark;
+
+import org.pancakelab.http.PancakeHttpServer;
+import org.pancakelab.model.Ingredient;
+import org.pancakelab.model.Order;
+import org.pancakelab.service.ServiceFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Peak heap growth while the server answers one unpaged {@code GET /api/orders}. Before
+ * each request the heap is collected and the pools' peak counters reset, so the figure
+ * is what rendering the response added on top of the live orders. The client discards
+ * the body as it arrives.
+ * <p>
+ * Run once per mode, since the setting is read when configuration loads.
+ * Arguments (all optional): {@code streaming=true|false orders=100000 requests=5}
+ */
+public class ListingPeakHeapBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        boolean streaming = true;
+        int orderCount = 100_000;
+        int requests = 5;
+        for (String arg : args) {
+            String[] kv = arg.split("=", 2);
+            switch (kv[0]) {
+                case "streaming" -> streaming = Boolean.parseBoolean(kv[1]);
+                case "orders" -> orderCount = Integer.parseInt(kv[1]);
+                case "requests" -> requests = Integer.parseInt(kv[1]);
+                default -> throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+        }
+
+        // Must happen before Configuration is first touched
+        System.setProperty("server.response.streaming", String.valueOf(streaming));
+        System.setProperty("rate.limit.per.route", "false");
+        System.setProperty("rate.limit.max.requests", String.valueOf(Integer.MAX_VALUE));
+
+        ServiceFactory services = new ServiceFactory();
+        for (int i = 0; i < orderCount; i++) {
+            Order order = services.getOrderService().createOrder(i % 50 + 1, i % 100 + 1);
+            UUID pancakeId = services.getPancakeService().createPancake(order.getId());
+            services.getPancakeService().addIngredientToPancake(order.getId(), pancakeId, new Ingredient("Berries"));
+        }
+        PancakeHttpServer server = new PancakeHttpServer(0, 10, services);
+        server.start();
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:" + server.getPort() + "/api/orders"))
+                .GET()
+                .build();
+
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+        for (int i = 0; i < 3; i++) {
+            client.send(request, HttpResponse.BodyHandlers.discarding());
+        }
+
+        long worstPeak = 0;
+        long totalNanos = 0;
+        for (int i = 0; i < requests; i++) {
+            System.gc();
+            long baseline = heapPools.stream().mapToLong(pool -> pool.getUsage().getUsed()).sum();
+            heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+            long start = System.nanoTime();
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            totalNanos += System.nanoTime() - start;
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Unexpected status " + response.statusCode());
+            }
+            long peak = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+            worstPeak = Math.max(worstPeak, peak - baseline);
+        }
+        server.stop();
+
+        System.out.printf("%-10s %8s %16s %12s%n", "streaming", "orders", "peak heap MB", "avg ms");
+        System.out.printf("%-10s %8d %16.1f %12.1f%n", streaming, orderCount,
+                worstPeak / (1024.0 * 1024.0), totalNanos / 1e6 / requests);
+    }
+}
@@ -0,0 +1,59 @@
+package org.pancakelab.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.pancakelab.metrics.Counter;
+import org.pancakelab.metrics.LatencyHistogram;
+import org.pancakelab.metrics.MetricsRegistry;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What metering adds to a request: the two {@code System.nanoTime()} calls, the latency
+ * histogram update and the status counter increment the route wrapper performs, against
+ * the clock reads alone. The metrics are shared, so {@code -t 4} shows contention between
+ * server threads hitting the same route. {@code scrape} is the cost of one
+ * {@code GET /metrics} over a registry the size of the API's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+    private final MetricsRegistry registry = new MetricsRegistry();
+    private LatencyHistogram latency;
+    private Counter requests;
+
+    @Setup
+    public void setUp() {
+        latency = registry.histogram("duration_seconds", "Latency.", "route", "GET /api/orders/{orderId}");
+        requests = registry.counter("requests_total", "Requests.", "route", "GET /api/orders/{orderId}", "status", "200");
+        for (int route = 0; route < 14; route++) {
+            LatencyHistogram other = registry.histogram("duration_seconds", "Latency.", "route", "route " + route);
+            for (int i = 0; i < 10_000; i++) {
+                other.record(1_000 + i * 37L);
+            }
+            registry.counter("requests_total", "Requests.", "route", "route " + route, "status", "200").add(10_000);
+        }
+    }
+
+    @Benchmark
+    public long clockOnly() {
+        long start = System.nanoTime();
+        return System.nanoTime() - start;
+    }
+
+    @Benchmark
+    public void record() {
+        long start = System.nanoTime();
+        latency.record(System.nanoTime() - start);
+        requests.increment();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public String scrape() {
+        return registry.scrape();
+    }
+}
@@ -0,0 +1,61 @@
+package org.pancakelab.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.pancakelab.model.Ingredient;
+import org.pancakelab.model.Order;
+import org.pancakelab.model.OrderState;
+import org.pancakelab.model.Pancake;
+import org.pancakelab.service.impl.OrderLogServiceImpl;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Audit log append cost with 64 writer threads: the ring buffer against the former
+ * format-then-append into one shared StringBuilder (synchronized here so it survives
+ * the benchmark, and truncated to keep the heap bounded).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(64)
+public class OrderLogBenchmark {
+    private static final StringBuilder legacyLog = new StringBuilder();
+
+    private Order order;
+    private Pancake pancake;
+    private Ingredient ingredient;
+
+    @Setup
+    public void setUp() {
+        order = new Order(1, 2);
+        pancake = new Pancake();
+        ingredient = new Ingredient("Berries");
+    }
+
+    @Benchmark
+    public void ringBuffer() {
+        OrderLogServiceImpl.logAddIngredient(order, pancake, ingredient);
+        OrderLogServiceImpl.logOrderStateChange(order, OrderState.OPEN, OrderState.COMPLETED);
+    }
+
+    @Benchmark
+    public void legacyStringBuilder() {
+        String time = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        appendLegacy("[%s] Added ingredient '%s' to pancake %s in order %s\n"
+                .formatted(time, ingredient.getName(), pancake.getId(), order.getId()));
+        appendLegacy("[%s] Order %s state changed from %s to %s (Building %d, Room %d)\n"
+                .formatted(time, order.getId(), OrderState.OPEN, OrderState.COMPLETED, order.getBuilding(), order.getRoom()));
+    }
+
+    private static synchronized void appendLegacy(String entry) {
+        if (legacyLog.length() > 64 * 1024 * 1024) {
+            legacyLog.setLength(0);
+        }
+        legacyLog.append(entry);
+    }
+}
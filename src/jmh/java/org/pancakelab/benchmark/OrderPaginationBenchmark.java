@@ -0,0 +1,71 @@
+package org.pancakelab.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.pancakelab.http.StubHttpExchange;
+import org.pancakelab.http.controller.OrderController;
+import org.pancakelab.model.Ingredient;
+import org.pancakelab.model.Order;
+import org.pancakelab.service.OrderService;
+import org.pancakelab.service.ServiceFactory;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code GET /api/orders} latency with 100k live orders: the first and a deep page of
+ * 100 orders against the unpaged full listing, rendered through the controller.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderPaginationBenchmark {
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"100000"})
+    public int orderCount;
+
+    private OrderController orderController;
+    private StubHttpExchange exchange;
+    private String deepCursor;
+
+    @Setup
+    public void setUp() {
+        ServiceFactory services = new ServiceFactory();
+        OrderService orderService = services.getOrderService();
+        for (int i = 0; i < orderCount; i++) {
+            Order order = orderService.createOrder(i % 50 + 1, i % 100 + 1);
+            UUID pancakeId = services.getPancakeService().createPancake(order.getId());
+            services.getPancakeService().addIngredientToPancake(order.getId(), pancakeId, new Ingredient("Berries"));
+        }
+        List<Order> ordered = orderService.getOrders(null, null, orderCount).orders();
+        deepCursor = ordered.get(orderCount - orderCount / 10).getId().toString();
+        orderController = new OrderController(orderService);
+        exchange = new StubHttpExchange("GET", "/api/orders");
+    }
+
+    @Benchmark
+    public int firstPage() throws IOException {
+        return render("/api/orders?limit=" + PAGE_SIZE);
+    }
+
+    @Benchmark
+    public int deepPage() throws IOException {
+        return render("/api/orders?limit=" + PAGE_SIZE + "&cursor=" + deepCursor);
+    }
+
+    @Benchmark
+    public int fullList() throws IOException {
+        return render("/api/orders");
+    }
+
+    private int render(String uri) throws IOException {
+        orderController.getAllOrders(exchange.reset("GET", uri, new byte[0]), Map.of());
+        return exchange.getResponseBodyAsString().length();
+    }
+}
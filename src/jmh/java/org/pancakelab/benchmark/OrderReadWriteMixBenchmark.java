@@ -0,0 +1,123 @@
+package org.pancakelab.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.pancakelab.http.dto.IngredientResponse;
+import org.pancakelab.http.dto.OrderResponse;
+import org.pancakelab.http.dto.PancakeResponse;
+import org.pancakelab.model.Ingredient;
+import org.pancakelab.model.Order;
+import org.pancakelab.model.Pancake;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * A 95/5 mix of {@link OrderResponse#fromOrder} reads and ingredient add/remove writes
+ * on one shared order of 10 pancakes. {@code copyOnWrite} uses the model as is;
+ * {@code locked} uses the former synchronized getters that copied on every read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class OrderReadWriteMixBenchmark {
+    private static final int PANCAKES = 10;
+    private static final int WRITE_PERCENT = 5;
+
+    private Order order;
+    private Pancake[] pancakes;
+    private LegacyOrder legacyOrder;
+    private LegacyPancake[] legacyPancakes;
+
+    @Setup
+    public void setUp() {
+        order = new Order(1, 1);
+        legacyOrder = new LegacyOrder();
+        pancakes = new Pancake[PANCAKES];
+        legacyPancakes = new LegacyPancake[PANCAKES];
+        for (int i = 0; i < PANCAKES; i++) {
+            pancakes[i] = new Pancake();
+            legacyPancakes[i] = new LegacyPancake();
+            for (String name : List.of("Dark Chocolate", "Hazelnuts", "Berries")) {
+                pancakes[i].addIngredient(new Ingredient(name));
+                legacyPancakes[i].addIngredient(new Ingredient(name));
+            }
+            order.addPancake(pancakes[i]);
+            legacyOrder.addPancake(legacyPancakes[i]);
+        }
+    }
+
+    @Benchmark
+    public Object copyOnWrite() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextInt(100) < WRITE_PERCENT) {
+            Pancake pancake = pancakes[random.nextInt(PANCAKES)];
+            Ingredient ingredient = new Ingredient("Whipped Cream");
+            pancake.addIngredient(ingredient);
+            pancake.removeIngredient(ingredient.getId());
+            return ingredient;
+        }
+        return OrderResponse.fromOrder(order);
+    }
+
+    @Benchmark
+    public Object locked() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextInt(100) < WRITE_PERCENT) {
+            LegacyPancake pancake = legacyPancakes[random.nextInt(PANCAKES)];
+            Ingredient ingredient = new Ingredient("Whipped Cream");
+            pancake.addIngredient(ingredient);
+            pancake.removeIngredient(ingredient.getId());
+            return ingredient;
+        }
+        List<PancakeResponse> pancakeResponses = legacyOrder.getPancakes().stream()
+                .map(pancake -> new PancakeResponse(pancake.id, pancake.ingredients().stream()
+                        .map(IngredientResponse::from)
+                        .collect(Collectors.toList())))
+                .collect(Collectors.toList());
+        return new OrderResponse(legacyOrder.id, 1, 1, null, pancakeResponses);
+    }
+
+    /**
+     * The former pancake storage of {@link Order}.
+     */
+    static class LegacyOrder {
+        private final UUID id = UUID.randomUUID();
+        private final List<LegacyPancake> pancakes = new ArrayList<>();
+
+        synchronized void addPancake(LegacyPancake pancake) {
+            pancakes.add(pancake);
+        }
+
+        synchronized List<LegacyPancake> getPancakes() {
+            return new ArrayList<>(pancakes);
+        }
+    }
+
+    /**
+     * The former ingredient storage of {@link Pancake}.
+     */
+    static class LegacyPancake {
+        private final UUID id = UUID.randomUUID();
+        private final List<Ingredient> ingredients = new ArrayList<>();
+
+        synchronized List<Ingredient> ingredients() {
+            return new ArrayList<>(ingredients);
+        }
+
+        synchronized void addIngredient(Ingredient ingredient) {
+            ingredients.add(ingredient);
+        }
+
+        synchronized void removeIngredient(UUID ingredientId) {
+            ingredients.removeIf(ingredient -> ingredient.getId().equals(ingredientId));
+        }
+    }
+}
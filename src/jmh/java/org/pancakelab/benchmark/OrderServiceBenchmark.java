@@ -0,0 +1,72 @@
+package org.pancakelab.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.pancakelab.model.Order;
+import org.pancakelab.model.OrderState;
+import org.pancakelab.service.OrderPage;
+import org.pancakelab.service.OrderService;
+import org.pancakelab.service.impl.OrderServiceImpl;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link OrderServiceImpl} operations against a service already holding
+ * {@code liveOrders} orders, a quarter of them COMPLETED. Orders created by a benchmark
+ * are cancelled again, so the service keeps its size while it is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderServiceBenchmark {
+
+    @Param({"10000"})
+    public int liveOrders;
+
+    private OrderService orderService;
+    private UUID[] ids;
+
+    @Setup
+    public void setUp() {
+        orderService = new OrderServiceImpl();
+        ids = new UUID[liveOrders];
+        for (int i = 0; i < liveOrders; i++) {
+            Order order = orderService.createOrder(i % 50 + 1, i % 100 + 1);
+            if (i % 4 == 0) {
+                orderService.completeOrder(order.getId());
+            }
+            ids[i] = order.getId();
+        }
+    }
+
+    @Benchmark
+    public Order createAndCancel() {
+        Order order = orderService.createOrder(1, 1);
+        orderService.cancelOrder(order.getId());
+        return order;
+    }
+
+    @Benchmark
+    public Order lifecycle() {
+        Order order = orderService.createOrder(1, 1);
+        orderService.completeOrder(order.getId());
+        orderService.prepareOrder(order.getId());
+        orderService.startDelivery(order.getId());
+        return order;
+    }
+
+    @Benchmark
+    public Optional<Order> getOrder() {
+        return orderService.getOrder(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+
+    @Benchmark
+    public OrderPage firstCompletedPage() {
+        return orderService.getOrders(OrderState.COMPLETED, null, 50);
+    }
+}
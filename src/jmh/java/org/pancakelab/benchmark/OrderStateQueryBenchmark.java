@@ -0,0 +1,53 @@
+package org.pancakelab.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.pancakelab.model.Order;
+import org.pancakelab.model.OrderState;
+import org.pancakelab.service.OrderService;
+import org.pancakelab.service.impl.OrderServiceImpl;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * {@code GET /api/orders?state=COMPLETED} against 100k live orders: the per-state index
+ * against a full scan of every order, as the service did before.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderStateQueryBenchmark {
+    private static final int ORDERS = 100_000;
+
+    @Param({"100", "1000", "10000"})
+    public int completedOrders;
+
+    private OrderService orderService;
+
+    @Setup
+    public void setUp() {
+        orderService = new OrderServiceImpl();
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = orderService.createOrder(i % 50 + 1, i % 100 + 1);
+            if (i < completedOrders) {
+                orderService.completeOrder(order.getId());
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Order> indexedQuery() {
+        return orderService.getOrdersByState(OrderState.COMPLETED);
+    }
+
+    @Benchmark
+    public List<Order> fullScan() {
+        return orderService.getAllOrders().stream()
+                .filter(order -> order.getState() == OrderState.COMPLETED)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,55 @@
+package org.pancakelab.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.pancakelab.model.Order;
+import org.pancakelab.service.OrderService;
+import org.pancakelab.service.impl.OrderServiceImpl;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Many threads each driving their own orders through OPEN → COMPLETED → PREPARED →
+ * CANCELLED. {@code lockFree} uses the service as is; {@code globalLock} serializes the
+ * transitions on one shared monitor, as the former synchronized updateOrderState did.
+ * Compare throughput with {@code -t 1}, {@code -t 4}, {@code -t 16}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class OrderTransitionBenchmark {
+    private final Object globalLock = new Object();
+    private OrderService orderService;
+
+    @Setup
+    public void setUp() {
+        orderService = new OrderServiceImpl();
+    }
+
+    @Benchmark
+    public Order lockFree() {
+        Order order = orderService.createOrder(1, 1);
+        orderService.completeOrder(order.getId());
+        orderService.prepareOrder(order.getId());
+        orderService.cancelOrder(order.getId());
+        return order;
+    }
+
+    @Benchmark
+    public Order globalLock() {
+        Order order = orderService.createOrder(1, 1);
+        synchronized (globalLock) {
+            orderService.completeOrder(order.getId());
+        }
+        synchronized (globalLock) {
+            orderService.prepareOrder(order.getId());
+        }
+        synchronized (globalLock) {
+            orderService.cancelOrder(order.getId());
+        }
+        return order;
+    }
+}
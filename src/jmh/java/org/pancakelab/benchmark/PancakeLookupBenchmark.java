@@ -0,0 +1,117 @@
+package org.pancakelab.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.pancakelab.model.Ingredient;
+import org.pancakelab.model.Order;
+import org.pancakelab.model.Pancake;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pancake access inside one order of 1 to 1,000 pancakes: the id-indexed {@link Order}
+ * against the former synchronized list that was scanned for every lookup and copied on
+ * every read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PancakeLookupBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    public int pancakes;
+
+    private Order order;
+    private LegacyPancakeList legacy;
+    private UUID[] ids;
+
+    @Setup
+    public void setUp() {
+        order = new Order(1, 1);
+        legacy = new LegacyPancakeList();
+        ids = new UUID[pancakes];
+        for (int i = 0; i < pancakes; i++) {
+            Pancake pancake = new Pancake();
+            pancake.addIngredient(new Ingredient("Berries"));
+            order.addPancake(pancake);
+            legacy.add(pancake);
+            ids[i] = pancake.getId();
+        }
+    }
+
+    private UUID randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    @Benchmark
+    public Optional<Pancake> lookup() {
+        return order.getPancake(randomId());
+    }
+
+    @Benchmark
+    public Optional<Pancake> legacyLookup() {
+        return legacy.get(randomId());
+    }
+
+    @Benchmark
+    public int iterate() {
+        int sum = 0;
+        for (Pancake pancake : order.getPancakes()) {
+            sum += pancake.getId().hashCode();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int legacyIterate() {
+        int sum = 0;
+        for (Pancake pancake : legacy.getAll()) {
+            sum += pancake.getId().hashCode();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public void removeAndAdd() {
+        Pancake pancake = order.getPancake(randomId()).orElseThrow();
+        order.removePancake(pancake.getId());
+        order.addPancake(pancake);
+    }
+
+    @Benchmark
+    public void legacyRemoveAndAdd() {
+        Pancake pancake = legacy.get(randomId()).orElseThrow();
+        legacy.remove(pancake.getId());
+        legacy.add(pancake);
+    }
+
+    /**
+     * The former pancake storage of {@link Order}.
+     */
+    static class LegacyPancakeList {
+        private final List<Pancake> pancakes = new ArrayList<>();
+
+        synchronized void add(Pancake pancake) {
+            pancakes.add(pancake);
+        }
+
+        synchronized void remove(UUID pancakeId) {
+            pancakes.removeIf(p -> p.getId().equals(pancakeId));
+        }
+
+        synchronized Optional<Pancake> get(UUID pancakeId) {
+            return pancakes.stream().filter(p -> p.getId().equals(pancakeId)).findFirst();
+        }
+
+        synchronized List<Pancake> getAll() {
+            return new ArrayList<>(pancakes);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package org.pancakelab.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.pancakelab.model.Ingredient;
+import org.pancakelab.model.Order;
+import org.pancakelab.model.Pancake;
+import org.pancakelab.service.PancakeService;
+import org.pancakelab.service.ServiceFactory;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code PancakeServiceImpl} edits on an open order of {@code pancakes} pancakes with
+ * two ingredients each: adding and removing an ingredient, creating and removing a
+ * pancake, and listing the order's pancakes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PancakeServiceBenchmark {
+
+    @Param({"10"})
+    public int pancakes;
+
+    private PancakeService pancakeService;
+    private UUID orderId;
+    private UUID pancakeId;
+
+    @Setup
+    public void setUp() {
+        ServiceFactory services = new ServiceFactory();
+        pancakeService = services.getPancakeService();
+        Order order = services.getOrderService().createOrder(1, 1);
+        orderId = order.getId();
+        for (int i = 0; i < pancakes; i++) {
+            pancakeId = pancakeService.createPancake(orderId);
+            pancakeService.addIngredientToPancake(orderId, pancakeId, new Ingredient("Dark Chocolate"));
+            pancakeService.addIngredientToPancake(orderId, pancakeId, new Ingredient("Berries"));
+        }
+    }
+
+    @Benchmark
+    public Ingredient addAndRemoveIngredient() {
+        Ingredient added = pancakeService.addIngredientToPancake(orderId, pancakeId, new Ingredient("Whipped Cream"));
+        pancakeService.removeIngredientFromPancake(orderId, pancakeId, added.getId());
+        return added;
+    }
+
+    @Benchmark
+    public UUID createAndRemovePancake() {
+        UUID created = pancakeService.createPancake(orderId);
+        pancakeService.removePancake(orderId, created);
+        return created;
+    }
+
+    @Benchmark
+    public List<Pancake> getPancakesByOrder() {
+        return pancakeService.getPancakesByOrder(orderId);
+    }
+}
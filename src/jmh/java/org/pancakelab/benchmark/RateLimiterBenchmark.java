@@ -0,0 +1,101 @@
+package org.pancakelab.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.pancakelab.http.RateLimitAlgorithm;
+import org.pancakelab.http.RateLimiter;
+
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cost of one rate limiting decision for each algorithm, against the former
+ * {@code ConcurrentHashMap.compute} fixed window. With one client the limit is reached
+ * almost at once, so mostly the rejection path is measured; with 10000 clients most
+ * requests are admitted.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimiterBenchmark {
+    private static final int MAX_REQUESTS = 60_000;
+    private static final int WINDOW_MS = 1000;
+
+    @Param({"LEGACY", "FIXED_WINDOW", "SLIDING_WINDOW", "TOKEN_BUCKET"})
+    public String algorithm;
+
+    @Param({"1", "10000"})
+    public int clients;
+
+    private String[] ips;
+    private RateLimiter limiter;
+    private LegacyRateLimiter legacy;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup
+    public void setUp() {
+        ips = new String[clients];
+        for (int i = 0; i < clients; i++) {
+            ips[i] = "10.0." + (i >>> 8) + "." + (i & 0xFF);
+        }
+        if (algorithm.equals("LEGACY")) {
+            legacy = new LegacyRateLimiter(MAX_REQUESTS, WINDOW_MS);
+        } else {
+            limiter = new RateLimiter(RateLimitAlgorithm.valueOf(algorithm), MAX_REQUESTS, WINDOW_MS);
+        }
+    }
+
+    @Benchmark
+    public boolean allowRequest(Cursor cursor) {
+        String ip = ips[cursor.next];
+        cursor.next = cursor.next + 1 == ips.length ? 0 : cursor.next + 1;
+        return legacy != null ? legacy.allowRequest(ip) : limiter.allowRequest(ip);
+    }
+
+    /**
+     * The fixed window as it was: a new {@code Instant} and a compute lambda per request.
+     */
+    static class LegacyRateLimiter {
+        private final int maxRequestsPerWindow;
+        private final int windowSizeMs;
+        private final ConcurrentHashMap<String, RequestWindow> requestWindows = new ConcurrentHashMap<>();
+
+        LegacyRateLimiter(int maxRequestsPerWindow, int windowSizeMs) {
+            this.maxRequestsPerWindow = maxRequestsPerWindow;
+            this.windowSizeMs = windowSizeMs;
+        }
+
+        boolean allowRequest(String clientIp) {
+            RequestWindow window = requestWindows.compute(clientIp, (key, existing) -> {
+                Instant now = Instant.now();
+                if (existing == null || existing.isExpired(now)) {
+                    return new RequestWindow(now);
+                }
+                existing.count.incrementAndGet();
+                return existing;
+            });
+            return window.count.get() <= maxRequestsPerWindow;
+        }
+
+        private class RequestWindow {
+            private final Instant startTime;
+            private final AtomicInteger count = new AtomicInteger(1);
+
+            RequestWindow(Instant startTime) {
+                this.startTime = startTime;
+            }
+
+            boolean isExpired(Instant now) {
+                return now.toEpochMilli() - startTime.toEpochMilli() >= windowSizeMs;
+            }
+        }
+    }
+}
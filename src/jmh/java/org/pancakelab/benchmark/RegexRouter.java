@@ -0,0 +1,80 @@
+package org.pancakelab.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import org.pancakelab.http.Router;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The former linear regex matcher, kept only as a baseline for {@link RouterBenchmark}.
+ */
+class RegexRouter {
+    private final List<Route> routes = new ArrayList<>();
+
+    void addRoute(String method, String pattern, Router.RouteHandler handler) {
+        routes.add(new Route(method, compilePattern(pattern), handler, extractParamNames(pattern)));
+    }
+
+    boolean handleRequest(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+
+        for (Route route : routes) {
+            if (route.matches(method, path)) {
+                Matcher matcher = route.pattern.matcher(path);
+                if (matcher.matches()) {
+                    Map<String, String> pathParams = extractPathParams(matcher, route.paramNames);
+                    route.handler.handle(exchange, pathParams);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private Pattern compilePattern(String pattern) {
+        String regexPattern = pattern.replaceAll("\\{([^}]+)\\}", "([^/]+)");
+        return Pattern.compile(regexPattern);
+    }
+
+    private List<String> extractParamNames(String pattern) {
+        List<String> paramNames = new ArrayList<>();
+        Matcher matcher = Pattern.compile("\\{([^}]+)\\}").matcher(pattern);
+        while (matcher.find()) {
+            paramNames.add(matcher.group(1));
+        }
+        return paramNames;
+    }
+
+    private Map<String, String> extractPathParams(Matcher matcher, List<String> paramNames) {
+        Map<String, String> params = new HashMap<>();
+        for (int i = 0; i < paramNames.size() && i < matcher.groupCount(); i++) {
+            params.put(paramNames.get(i), matcher.group(i + 1));
+        }
+        return params;
+    }
+
+    private static class Route {
+        final String method;
+        final Pattern pattern;
+        final Router.RouteHandler handler;
+        final List<String> paramNames;
+
+        Route(String method, Pattern pattern, Router.RouteHandler handler, List<String> paramNames) {
+            this.method = method;
+            this.pattern = pattern;
+            this.handler = handler;
+            this.paramNames = paramNames;
+        }
+
+        boolean matches(String requestMethod, String path) {
+            return method.equals(requestMethod) && pattern.matcher(path).matches();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.pancakelab.benchmark;
+
+import org.pancakelab.model.Ingredient;
+import org.pancakelab.service.OrderService;
+import org.pancakelab.service.PancakeService;
+import org.pancakelab.service.ServiceFactory;
+import org.pancakelab.service.impl.OrderServiceImpl;
+import org.pancakelab.service.impl.OrderWriteAheadLog;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Restart time of a persistent order store: replaying the whole write-ahead log versus
+ * loading a snapshot and replaying only the mutations logged after it.
+ * <p>
+ * Each order is created with one pancake and one ingredient (3 log records). After the
+ * snapshot, {@code tail} percent of the orders are completed.
+ * <p>
+ * Arguments (all optional): {@code orders=100000,1000000 tail=1 dir=target/restart-bench}
+ */
+public class RestartTimeBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int[] orderCounts = {100_000, 1_000_000};
+        int tailPercent = 1;
+        Path directory = Path.of("target", "restart-bench");
+        for (String arg : args) {
+            String[] kv = arg.split("=", 2);
+            switch (kv[0]) {
+                case "orders" -> orderCounts = Arrays.stream(kv[1].split(",")).mapToInt(Integer::parseInt).toArray();
+                case "tail" -> tailPercent = Integer.parseInt(kv[1]);
+                case "dir" -> directory = Path.of(kv[1]);
+                default -> throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+        }
+
+        System.out.printf("%-10s %-14s %10s %12s %10s %10s%n", "orders", "recovery", "disk MB", "snapshot", "records", "ms");
+        for (int orders : orderCounts) {
+            deleteRecursively(directory);
+            populate(directory, orders, false, tailPercent);
+            restart(directory, orders, "full log");
+
+            deleteRecursively(directory);
+            populate(directory, orders, true, tailPercent);
+            restart(directory, orders, "snapshot+tail");
+        }
+        deleteRecursively(directory);
+    }
+
+    private static void populate(Path directory, int orderCount, boolean snapshot, int tailPercent) throws IOException {
+        try (ServiceFactory services = new ServiceFactory(OrderWriteAheadLog.open(directory, false))) {
+            OrderService orders = services.getOrderService();
+            PancakeService pancakes = services.getPancakeService();
+            UUID[] ids = new UUID[orderCount];
+            for (int i = 0; i < orderCount; i++) {
+                UUID orderId = orders.createOrder(i % 50, i % 1000).getId();
+                UUID pancakeId = pancakes.createPancake(orderId);
+                pancakes.addIngredientToPancake(orderId, pancakeId, new Ingredient("Dark Chocolate"));
+                ids[i] = orderId;
+            }
+            if (snapshot) {
+                ((OrderServiceImpl) orders).snapshot();
+            }
+            for (int i = 0; i < (long) orderCount * tailPercent / 100; i++) {
+                orders.completeOrder(ids[i]);
+            }
+        }
+    }
+
+    private static void restart(Path directory, int orderCount, String label) throws IOException {
+        System.gc();
+        long diskBytes = directorySize(directory);
+        long start = System.nanoTime();
+        OrderWriteAheadLog wal = OrderWriteAheadLog.open(directory, false);
+        try (ServiceFactory services = new ServiceFactory(wal)) {
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            if (services.getOrderService().getAllOrders().size() != orderCount) {
+                throw new IllegalStateException("Recovered the wrong number of orders");
+            }
+            System.out.printf("%-10d %-14s %10d %12d %10d %10d%n", orderCount, label, diskBytes >> 20,
+                    wal.getSnapshotOrders(), wal.getRecoveredRecords(), millis);
+        }
+    }
+
+    private static long directorySize(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.mapToLong(path -> path.toFile().length()).sum();
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.pancakelab.benchmark;
+
+import org.pancakelab.http.ApiHandler;
+import org.pancakelab.http.StubHttpExchange;
+import org.pancakelab.model.Order;
+import org.pancakelab.service.ServiceFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+
+/**
+ * One client address (a kitchen dashboard and the ordering tills behind the same NAT)
+ * drives {@link ApiHandler} in-process: reader threads poll {@code GET /api/orders} as
+ * fast as they can while a writer adds pancakes at a fixed rate. Reports how many reads
+ * and writes per second were served and how many were answered 429.
+ * <p>
+ * Run once per quota mode, since the limits are read when configuration loads.
+ * Arguments (all optional):
+ * {@code quota=per-route|shared readers=4 writes.per.second=50 limit=200 seconds=5}
+ */
+public class RouteQuotaLoadBenchmark {
+    private static final String CLIENT = "10.0.0.7";
+
+    public static void main(String[] args) throws Exception {
+        String quota = "per-route";
+        int readers = 4;
+        int writesPerSecond = 50;
+        int limit = 200;
+        int seconds = 5;
+        for (String arg : args) {
+            String[] kv = arg.split("=", 2);
+            switch (kv[0]) {
+                case "quota" -> quota = kv[1];
+                case "readers" -> readers = Integer.parseInt(kv[1]);
+                case "writes.per.second" -> writesPerSecond = Integer.parseInt(kv[1]);
+                case "limit" -> limit = Integer.parseInt(kv[1]);
+                case "seconds" -> seconds = Integer.parseInt(kv[1]);
+                default -> throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+        }
+
+        // Must happen before Configuration is first touched
+        System.setProperty("rate.limit.per.route", String.valueOf(quota.equals("per-route")));
+        System.setProperty("rate.limit.max.requests", String.valueOf(limit));
+        System.setProperty("rate.limit.query.max.requests", String.valueOf(limit));
+        System.setProperty("rate.limit.mutation.max.requests", String.valueOf(limit));
+        System.setProperty("rate.limit.window.ms", "1000");
+        org.pancakelab.util.Logger.debug("");
+        java.util.logging.Logger.getLogger("PancakeLab").setLevel(Level.OFF);
+
+        ServiceFactory services = new ServiceFactory();
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            orders.add(services.getOrderService().createOrder(1, i));
+        }
+        ApiHandler handler = new ApiHandler(services);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        AtomicLong readsServed = new AtomicLong();
+        AtomicLong readsThrottled = new AtomicLong();
+        List<Thread> threads = new ArrayList<>();
+        for (int r = 0; r < readers; r++) {
+            Thread reader = new Thread(() -> {
+                StubHttpExchange exchange = new StubHttpExchange("GET", "/api/orders").withRemoteAddress(CLIENT);
+                while (System.nanoTime() < deadline) {
+                    exchange.reset(new byte[0]);
+                    handle(handler, exchange);
+                    (exchange.getResponseCode() == 429 ? readsThrottled : readsServed).incrementAndGet();
+                }
+            });
+            threads.add(reader);
+        }
+
+        long[] writes = new long[2];
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / writesPerSecond;
+        Thread writer = new Thread(() -> {
+            StubHttpExchange exchange = new StubHttpExchange("POST", "/").withRemoteAddress(CLIENT);
+            long next = System.nanoTime();
+            for (int i = 0; System.nanoTime() < deadline; i++) {
+                Order order = orders.get(i % orders.size());
+                exchange.reset("POST", "/api/orders/" + order.getId() + "/pancakes", new byte[0]);
+                handle(handler, exchange);
+                writes[exchange.getResponseCode() == 429 ? 1 : 0]++;
+                next += intervalNanos;
+                LockSupport.parkNanos(next - System.nanoTime());
+            }
+        });
+        threads.add(writer);
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        System.out.printf("%-10s %12s %12s %12s %12s%n", "quota", "reads/s", "reads 429/s", "writes/s", "writes 429/s");
+        System.out.printf("%-10s %12.0f %12.0f %12.1f %12.1f%n", quota,
+                readsServed.get() / (double) seconds, readsThrottled.get() / (double) seconds,
+                writes[0] / (double) seconds, writes[1] / (double) seconds);
+    }
+
+    private static void handle(ApiHandler handler, StubHttpExchange exchange) {
+        try {
+            handler.handle(exchange);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package org.pancakelab.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.pancakelab.http.Router;
+import org.pancakelab.http.StubHttpExchange;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the trie {@link Router} with the former linear regex matcher while the route
+ * table grows. Synthetic routes are registered ahead of the real API so the regex scan
+ * has to walk past them, as it would once more controllers are added.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouterBenchmark {
+    private static final String INGREDIENT_PATH = "/api/orders/5227f25e-4d23-4dd4-a808-def3d00ad845"
+            + "/pancakes/fca8104d-1a0b-4739-bf4f-a213500f0329/ingredients/886ce808-8534-45f4-b37a-490130988d67";
+
+    @Param({"13", "100", "1000"})
+    public int routeCount;
+
+    private Router trieRouter;
+    private RegexRouter regexRouter;
+    private StubHttpExchange ingredientRequest;
+    private StubHttpExchange orderRequest;
+    private StubHttpExchange unknownRequest;
+    private String lastParam;
+
+    @Setup
+    public void setUp() {
+        trieRouter = new Router();
+        regexRouter = new RegexRouter();
+        Router.RouteHandler handler = (exchange, pathParams) -> lastParam = pathParams.get("orderId");
+
+        String[] methods = {"GET", "POST", "DELETE"};
+        for (int i = 0; i < routeCount - 13; i++) {
+            String pattern = "/api/resource" + i + "/{orderId}/items/{itemId}";
+            trieRouter.addRoute(methods[i % methods.length], pattern, handler);
+            regexRouter.addRoute(methods[i % methods.length], pattern, handler);
+        }
+
+        String[][] apiRoutes = {
+                {"POST", "/api/orders"},
+                {"GET", "/api/orders"},
+                {"GET", "/api/orders/{orderId}"},
+                {"DELETE", "/api/orders/{orderId}"},
+                {"POST", "/api/orders/{orderId}/complete"},
+                {"POST", "/api/orders/{orderId}/prepare"},
+                {"POST", "/api/orders/{orderId}/deliver"},
+                {"POST", "/api/orders/{orderId}/cancel"},
+                {"POST", "/api/orders/{orderId}/pancakes"},
+                {"GET", "/api/orders/{orderId}/pancakes"},
+                {"DELETE", "/api/orders/{orderId}/pancakes/{pancakeId}"},
+                {"POST", "/api/orders/{orderId}/pancakes/{pancakeId}/ingredients"},
+                {"DELETE", "/api/orders/{orderId}/pancakes/{pancakeId}/ingredients/{ingredientId}"}
+        };
+        for (String[] route : apiRoutes) {
+            trieRouter.addRoute(route[0], route[1], handler);
+            regexRouter.addRoute(route[0], route[1], handler);
+        }
+
+        ingredientRequest = new StubHttpExchange("DELETE", INGREDIENT_PATH);
+        orderRequest = new StubHttpExchange("GET", "/api/orders/5227f25e-4d23-4dd4-a808-def3d00ad845");
+        unknownRequest = new StubHttpExchange("GET", "/api/menu/today");
+    }
+
+    @Benchmark
+    public String trieDeepRoute() throws IOException {
+        trieRouter.handleRequest(ingredientRequest);
+        return lastParam;
+    }
+
+    @Benchmark
+    public String regexDeepRoute() throws IOException {
+        regexRouter.handleRequest(ingredientRequest);
+        return lastParam;
+    }
+
+    @Benchmark
+    public String trieShallowRoute() throws IOException {
+        trieRouter.handleRequest(orderRequest);
+        return lastParam;
+    }
+
+    @Benchmark
+    public String regexShallowRoute() throws IOException {
+        regexRouter.handleRequest(orderRequest);
+        return lastParam;
+    }
+
+    @Benchmark
+    public boolean trieNoMatch() throws IOException {
+        return trieRouter.handleRequest(unknownRequest);
+    }
+
+    @Benchmark
+    public boolean regexNoMatch() throws IOException {
+        return regexRouter.handleRequest(unknownRequest);
+    }
+}
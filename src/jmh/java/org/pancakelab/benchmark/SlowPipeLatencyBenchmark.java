@@ -0,0 +1,138 @@
+package org.pancakelab.benchmark;
+
+import org.pancakelab.http.ApiHandler;
+import org.pancakelab.http.StubHttpExchange;
+import org.pancakelab.model.Order;
+import org.pancakelab.service.ServiceFactory;
+import org.pancakelab.util.AsyncLogHandler;
+import org.pancakelab.util.Logger;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Request latency of {@link ApiHandler} while the log goes to a slow pipe (a console or
+ * log shipper that cannot keep up). {@code System.err} is replaced by a stream that
+ * accepts {@code pipe.bytes.per.second} and pays {@code pipe.write.micros} per write
+ * call; client threads then fetch orders in a closed loop, each request logging its
+ * INFO line. Synchronous logging makes every request wait its turn at the pipe; the
+ * async handler only enqueues.
+ * <p>
+ * Arguments (all optional):
+ * {@code logging=async|sync overflow=drop-debug clients=4 seconds=5 pipe.bytes.per.second=1000000
+ * pipe.write.micros=100}
+ */
+public class SlowPipeLatencyBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String logging = "async";
+        String overflow = "drop-debug";
+        int clients = 4;
+        int seconds = 5;
+        long bytesPerSecond = 1_000_000;
+        long writeMicros = 100;
+        for (String arg : args) {
+            String[] kv = arg.split("=", 2);
+            switch (kv[0]) {
+                case "logging" -> logging = kv[1];
+                case "overflow" -> overflow = kv[1];
+                case "clients" -> clients = Integer.parseInt(kv[1]);
+                case "seconds" -> seconds = Integer.parseInt(kv[1]);
+                case "pipe.bytes.per.second" -> bytesPerSecond = Long.parseLong(kv[1]);
+                case "pipe.write.micros" -> writeMicros = Long.parseLong(kv[1]);
+                default -> throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+        }
+
+        // Must happen before the Logger and Configuration are first touched
+        System.setProperty("rate.limit.max.requests", String.valueOf(Integer.MAX_VALUE));
+        SlowPipe pipe = new SlowPipe(bytesPerSecond, writeMicros);
+        PrintStream console = System.err;
+        System.setErr(new PrintStream(pipe, false));
+        Logger.setLevel("INFO");
+        if (logging.equals("async")) {
+            Logger.useAsyncHandler(8192, AsyncLogHandler.OverflowPolicy.fromName(overflow));
+        }
+
+        ServiceFactory services = new ServiceFactory();
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            orders.add(services.getOrderService().createOrder(1, i));
+        }
+        ApiHandler handler = new ApiHandler(services);
+
+        ExecutorModeLoadBenchmark.LatencyRecorder latencies = new ExecutorModeLoadBenchmark.LatencyRecorder();
+        long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        long deadline = warmupEnd + TimeUnit.SECONDS.toNanos(seconds);
+        List<Thread> threads = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            int offset = c;
+            threads.add(new Thread(() -> {
+                StubHttpExchange exchange = new StubHttpExchange("GET", "/");
+                for (int i = offset; ; i++) {
+                    long start = System.nanoTime();
+                    if (start >= deadline) {
+                        return;
+                    }
+                    exchange.reset("GET", "/api/orders/" + orders.get(i % orders.size()).getId(), new byte[0]);
+                    try {
+                        handler.handle(exchange);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                    if (start >= warmupEnd) {
+                        latencies.record(System.nanoTime() - start);
+                    }
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long dropped = Logger.getDroppedRecords();
+
+        console.printf("%-14s %10s %10s %10s %10s %12s %12s%n",
+                "logging", "req/s", "p50 us", "p99 us", "p999 us", "log bytes", "dropped");
+        console.printf("%-14s %10.0f %10.1f %10.1f %10.1f %12d %12d%n",
+                logging.equals("async") ? "async/" + overflow : logging,
+                latencies.count() / (double) seconds,
+                latencies.percentile(0.50) / 1000.0, latencies.percentile(0.99) / 1000.0,
+                latencies.percentile(0.999) / 1000.0, pipe.written.get(), dropped);
+        System.exit(0);
+    }
+
+    /**
+     * Accepts bytes no faster than the configured rate, sleeping in the writing thread
+     * like a write to a full pipe would block it.
+     */
+    private static class SlowPipe extends OutputStream {
+        private final long nanosPerByte;
+        private final long nanosPerWrite;
+        final AtomicLong written = new AtomicLong();
+
+        SlowPipe(long bytesPerSecond, long writeMicros) {
+            this.nanosPerByte = TimeUnit.SECONDS.toNanos(1) / bytesPerSecond;
+            this.nanosPerWrite = TimeUnit.MICROSECONDS.toNanos(writeMicros);
+        }
+
+        @Override
+        public void write(int b) {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public synchronized void write(byte[] bytes, int offset, int length) {
+            long until = System.nanoTime() + nanosPerWrite + length * nanosPerByte;
+            for (long left; (left = until - System.nanoTime()) > 0; ) {
+                LockSupport.parkNanos(left);
+            }
+            written.addAndGet(length);
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package org.pancakelab.benchmark;
+
+import org.pancakelab.config.Configuration;
+import org.pancakelab.http.PancakeHttpServer;
+import org.pancakelab.metrics.LatencyHistogram;
+import org.pancakelab.service.ServiceFactory;
+import org.pancakelab.util.AsyncLogHandler;
+import org.pancakelab.util.Logger;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays an {@link HttpScript} workflow (by default the order lifecycle of
+ * {@code docs/httpClient/complete-workflow.http}) against an in-process
+ * {@link PancakeHttpServer} and reports throughput and latency percentiles per endpoint.
+ * <p>
+ * {@code mode=open} starts {@code rate} workflows per second on a fixed schedule,
+ * whether or not earlier ones have finished, as independent clients would. A workflow
+ * that starts late because the generator fell behind is timed from its scheduled start,
+ * so stalls are not hidden by the requests that were never sent (coordinated omission);
+ * the {@code raw p99} column is timed from the actual send for comparison. Later steps
+ * of a workflow wait for the response before them and are timed from their send.
+ * {@code mode=closed} runs {@code users} workflows back to back, each keeping one
+ * request in flight, which measures capacity but not latency under a given load.
+ * <p>
+ * Every {@code key=value} argument whose key contains a dot is set as a configuration
+ * property before the server starts, so configurations can be compared run by run, e.g.
+ * {@code server.executor=virtual log.async.enabled=false}. Arguments (all optional):
+ * {@code mode=open rate=200 users=16 seconds=10 warmup=3 threads=10
+ * script=docs/httpClient/complete-workflow.http}
+ */
+public class WorkflowLoadGenerator {
+    private static final int MAX_IN_FLIGHT_WORKFLOWS = 10_000;
+
+    public static void main(String[] args) throws Exception {
+        String mode = "open";
+        int rate = 200;
+        int users = 16;
+        int seconds = 10;
+        int warmup = 3;
+        int threads = 10;
+        Path script = Path.of("docs/httpClient/complete-workflow.http");
+
+        // Unlimited by default; must happen before Configuration is first touched
+        System.setProperty("rate.limit.max.requests", String.valueOf(Integer.MAX_VALUE));
+        System.setProperty("logging.level", "WARN");
+        for (String arg : args) {
+            String[] kv = arg.split("=", 2);
+            switch (kv[0]) {
+                case "mode" -> mode = kv[1];
+                case "rate" -> rate = Integer.parseInt(kv[1]);
+                case "users" -> users = Integer.parseInt(kv[1]);
+                case "seconds" -> seconds = Integer.parseInt(kv[1]);
+                case "warmup" -> warmup = Integer.parseInt(kv[1]);
+                case "threads" -> threads = Integer.parseInt(kv[1]);
+                case "script" -> script = Path.of(kv[1]);
+                default -> {
+                    if (!kv[0].contains(".") || kv.length < 2) {
+                        throw new IllegalArgumentException("Unknown argument: " + arg);
+                    }
+                    System.setProperty(kv[0], kv[1]);
+                }
+            }
+        }
+        if (!mode.equals("open") && !mode.equals("closed")) {
+            throw new IllegalArgumentException("mode must be open or closed: " + mode);
+        }
+
+        // Same logging setup as Main
+        Configuration config = Configuration.getInstance();
+        Logger.setLevel(config.getLogLevel());
+        if (config.isLogAsyncEnabled()) {
+            Logger.useAsyncHandler(config.getLogAsyncQueueCapacity(),
+                    AsyncLogHandler.OverflowPolicy.fromName(config.getLogAsyncOverflow()));
+        }
+
+        List<HttpScript.Step> steps = HttpScript.parse(script);
+        PancakeHttpServer.configureTcpNoDelay(config);
+        ServiceFactory services = new ServiceFactory();
+        PancakeHttpServer server = new PancakeHttpServer(0, threads, services);
+        server.start();
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(4);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clientExecutor)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+
+        Run run = new Run(client, "http://localhost:" + server.getPort(), steps);
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmup);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(seconds);
+        run.measureFrom = measureFrom;
+        if (mode.equals("open")) {
+            run.openLoop(rate, start, end);
+        } else {
+            run.closedLoop(users, end);
+        }
+        run.awaitIdle(Duration.ofSeconds(30));
+        server.stop();
+        clientExecutor.shutdownNow();
+
+        System.out.printf("%s loop, %s, %d s measured after %d s warmup, executor=%s threads=%d%n",
+                mode, mode.equals("open") ? rate + " workflows/s" : users + " users", seconds, warmup,
+                config.getServerExecutor(), threads);
+        run.report(seconds);
+        System.exit(0);
+    }
+
+    /**
+     * Per-endpoint statistics of one run.
+     */
+    private static final class EndpointStats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LatencyHistogram rawLatency = new LatencyHistogram();
+        final AtomicLong non2xx = new AtomicLong();
+        final AtomicLong failures = new AtomicLong();
+    }
+
+    private static final class Run {
+        private final HttpClient client;
+        private final String baseUrl;
+        private final List<HttpScript.Step> steps;
+        private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicLong completedWorkflows = new AtomicLong();
+        private final AtomicLong abortedWorkflows = new AtomicLong();
+        private final AtomicLong skippedWorkflows = new AtomicLong();
+        private final AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+        private volatile long measureFrom;
+
+        Run(HttpClient client, String baseUrl, List<HttpScript.Step> steps) {
+            this.client = client;
+            this.baseUrl = baseUrl;
+            this.steps = steps;
+            for (HttpScript.Step step : steps) {
+                stats.computeIfAbsent(step.endpoint(), e -> new EndpointStats());
+            }
+        }
+
+        /**
+         * Starts one workflow every {@code 1/rate} seconds from {@code start} until
+         * {@code end}, each timed from its scheduled start.
+         */
+        void openLoop(int rate, long start, long end) {
+            long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+            for (long i = 0; ; i++) {
+                long intended = start + i * intervalNanos;
+                if (intended >= end) {
+                    return;
+                }
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                if (inFlight.get() >= MAX_IN_FLIGHT_WORKFLOWS) {
+                    // The server is so far behind that more clients would only measure the generator
+                    skippedWorkflows.incrementAndGet();
+                    continue;
+                }
+                inFlight.incrementAndGet();
+                step(new HashMap<>(), 0, intended, intended, () -> {
+                });
+            }
+        }
+
+        /**
+         * {@code users} workflows back to back until {@code end}.
+         */
+        void closedLoop(int users, long end) {
+            for (int u = 0; u < users; u++) {
+                startClosed(end);
+            }
+        }
+
+        private void startClosed(long end) {
+            long now = System.nanoTime();
+            if (now >= end) {
+                return;
+            }
+            inFlight.incrementAndGet();
+            step(new HashMap<>(), 0, now, now, () -> startClosed(end));
+        }
+
+        /**
+         * Sends step {@code index} of a workflow, then the rest of it once the response is
+         * in. {@code intended} is when the request should have been sent; workflows started
+         * during the warmup are not measured.
+         */
+        private void step(Map<String, String> variables, int index, long workflowStart, long intended,
+                          Runnable next) {
+            if (index == steps.size()) {
+                completedWorkflows.incrementAndGet();
+                finish(next);
+                return;
+            }
+            HttpScript.Step step = steps.get(index);
+            HttpRequest request;
+            try {
+                HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + step.resolvePath(variables)))
+                        .timeout(Duration.ofSeconds(30))
+                        .method(step.method(), step.body().isEmpty()
+                                ? HttpRequest.BodyPublishers.noBody()
+                                : HttpRequest.BodyPublishers.ofString(step.body()));
+                step.headers().forEach(builder::header);
+                request = builder.build();
+            } catch (IllegalStateException e) {
+                // A capture the workflow depends on was missing from an earlier response
+                abortedWorkflows.incrementAndGet();
+                finish(next);
+                return;
+            }
+
+            EndpointStats endpoint = stats.get(step.endpoint());
+            long sent = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, failure) -> {
+                long now = System.nanoTime();
+                boolean measured = workflowStart >= measureFrom;
+                if (failure != null) {
+                    firstFailure.compareAndSet(null, failure);
+                    if (measured) {
+                        endpoint.failures.incrementAndGet();
+                    }
+                    abortedWorkflows.incrementAndGet();
+                    finish(next);
+                    return;
+                }
+                if (measured) {
+                    endpoint.latency.record(now - intended);
+                    endpoint.rawLatency.record(now - sent);
+                    if (response.statusCode() / 100 != 2) {
+                        endpoint.non2xx.incrementAndGet();
+                    }
+                }
+                step.capture(response.body(), variables);
+                // The next step goes out as soon as this response is in
+                step(variables, index + 1, workflowStart, now, next);
+            });
+        }
+
+        private void finish(Runnable next) {
+            inFlight.decrementAndGet();
+            next.run();
+        }
+
+        void awaitIdle(Duration timeout) {
+            long deadline = System.nanoTime() + timeout.toNanos();
+            while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+            }
+        }
+
+        void report(int seconds) {
+            String format = "%-72s %8s %8s %9s %9s %9s %9s %9s %7s %6s%n";
+            System.out.printf(format, "endpoint", "count", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms",
+                    "raw p99", "non-2xx", "fail");
+            LatencyHistogram all = new LatencyHistogram();
+            long total = 0;
+            for (Map.Entry<String, EndpointStats> entry : stats.entrySet()) {
+                EndpointStats endpoint = entry.getValue();
+                LatencyHistogram.Snapshot latency = endpoint.latency.snapshot();
+                total += latency.count();
+                System.out.printf(format, entry.getKey(), latency.count(),
+                        String.format("%.1f", latency.count() / (double) seconds),
+                        millis(latency.percentile(0.5)), millis(latency.percentile(0.9)),
+                        millis(latency.percentile(0.99)), millis(latency.percentile(0.999)),
+                        millis(endpoint.rawLatency.snapshot().percentile(0.99)),
+                        endpoint.non2xx.get(), endpoint.failures.get());
+            }
+            System.out.printf("total %d requests, %.1f req/s; workflows completed %d, aborted %d, not started %d,"
+                            + " unfinished %d%n", total, total / (double) seconds, completedWorkflows.get(),
+                    abortedWorkflows.get(), skippedWorkflows.get(), inFlight.get());
+            if (firstFailure.get() != null) {
+                System.out.println("first failure: " + firstFailure.get());
+            }
+        }
+
+        private static String millis(long nanos) {
+            return String.format("%.2f", nanos / 1e6);
+        }
+    }
+}
@@ -2,13 +2,31 @@ package org.pancakelab;
 
 import org.pancakelab.config.Configuration;
 import org.pancakelab.http.PancakeHttpServer;
+import org.pancakelab.model.IdGenerator;
+import org.pancakelab.model.Ids;
 import org.pancakelab.service.ServiceFactory;
+import org.pancakelab.service.impl.OrderLogServiceImpl;
+import org.pancakelab.util.AsyncLogHandler;
+import org.pancakelab.util.Logger;
 
 public class Main {
     public static void main(String[] args) {
         try {
             // Load configuration
             Configuration config = Configuration.getInstance();
+            Logger.setLevel(config.getLogLevel());
+            if (config.isLogAsyncEnabled()) {
+                Logger.useAsyncHandler(config.getLogAsyncQueueCapacity(),
+                        AsyncLogHandler.OverflowPolicy.fromName(config.getLogAsyncOverflow()));
+            }
+
+            Ids.use(IdGenerator.fromName(config.getIdGenerator()));
+            PancakeHttpServer.configureTcpNoDelay(config);
+
+            // Persist the order audit trail in the background
+            if (config.isOrderLogFileEnabled()) {
+                OrderLogServiceImpl.startFileWriter();
+            }
 
             // Create service factory for dependency injection
             ServiceFactory serviceFactory = new ServiceFactory();
@@ -19,10 +37,18 @@ public class Main {
                     config.getThreadPoolSize(),
                     serviceFactory
             );
+            server.getMetrics().counterFunction("pancakelab_audit_dropped_events_total",
+                    "Audit events overwritten before the file writer persisted them.",
+                    OrderLogServiceImpl::getDroppedFileEvents);
             server.start();
 
             // Shutdown hook to stop the server gracefully
-            Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.stop();
+                serviceFactory.close();
+                OrderLogServiceImpl.stopFileWriter();
+                Logger.flush();
+            }));
         } catch (Exception e) {
             System.err.println("Failed to start server: " + e.getMessage());
             System.exit(1);
@@ -48,6 +48,10 @@ public class Configuration {
         return getInt("server.thread.pool.size", 10);
     }
 
+    public String getServerExecutor() {
+        return getString("server.executor", "fixed");
+    }
+
     public int getRequestTimeoutMs() {
         return getInt("server.request.timeout.ms", 30000);
     }
@@ -60,6 +64,55 @@ public class Configuration {
         return getInt("rate.limit.window.ms", 60000);
     }
 
+    public int getRateLimitMaxClients() {
+        return getInt("rate.limit.max.clients", 100000);
+    }
+
+    public boolean isRateLimitPerRoute() {
+        return getBoolean("rate.limit.per.route", true);
+    }
+
+    public int getRateLimitQueryMaxRequests() {
+        int maxRequests = getInt("rate.limit.query.max.requests", 0);
+        return maxRequests > 0 ? maxRequests : getRateLimitMaxRequests();
+    }
+
+    public int getRateLimitMutationMaxRequests() {
+        int maxRequests = getInt("rate.limit.mutation.max.requests", 0);
+        return maxRequests > 0 ? maxRequests : getRateLimitMaxRequests();
+    }
+
+    /**
+     * Budget a request to {@code route} spends, from {@code rate.limit.<route>.cost}.
+     */
+    public int getRateLimitRouteCost(String route, int defaultCost) {
+        return getInt("rate.limit." + route + ".cost", defaultCost);
+    }
+
+    public String getRateLimitAlgorithm() {
+        return getString("rate.limit.algorithm", "sliding-window");
+    }
+
+    public int getRateLimitBucketCapacity() {
+        return getInt("rate.limit.bucket.capacity", 0);
+    }
+
+    public double getRateLimitBucketRefillPerSecond() {
+        return getDouble("rate.limit.bucket.refill.per.second", 0);
+    }
+
+    public boolean isResponseStreaming() {
+        return getBoolean("server.response.streaming", true);
+    }
+
+    public boolean isMetricsEndpointEnabled() {
+        return getBoolean("metrics.endpoint.enabled", true);
+    }
+
+    public boolean isTcpNoDelay() {
+        return getBoolean("server.tcp.nodelay", true);
+    }
+
     public int getServerBacklogSize() {
         return getInt("server.backlog.size", 100);
     }
@@ -68,6 +121,66 @@ public class Configuration {
         return getInt("server.shutdown.timeout.seconds", 30);
     }
 
+    public String getLogLevel() {
+        return getString("logging.level", "INFO");
+    }
+
+    public boolean isLogAsyncEnabled() {
+        return getBoolean("log.async.enabled", true);
+    }
+
+    public int getLogAsyncQueueCapacity() {
+        return getInt("log.async.queue.capacity", 8192);
+    }
+
+    public String getLogAsyncOverflow() {
+        return getString("log.async.overflow", "drop-debug");
+    }
+
+    public int getOrderLogCapacity() {
+        return getInt("order.log.capacity", 65536);
+    }
+
+    public boolean isOrderLogFileEnabled() {
+        return getBoolean("order.log.file.enabled", false);
+    }
+
+    public String getOrderLogFileDirectory() {
+        return getString("order.log.file.directory", "logs/audit");
+    }
+
+    public int getOrderLogFileSegmentBytes() {
+        return getInt("order.log.file.segment.bytes", 64 * 1024 * 1024);
+    }
+
+    public int getOrderLogFileCommitBytes() {
+        return getInt("order.log.file.commit.bytes", 64 * 1024);
+    }
+
+    public int getOrderLogFileCommitIntervalMs() {
+        return getInt("order.log.file.commit.interval.ms", 50);
+    }
+
+    public String getIdGenerator() {
+        return getString("id.generator", "uuidv7");
+    }
+
+    public boolean isWalEnabled() {
+        return getBoolean("persistence.wal.enabled", false);
+    }
+
+    public String getWalDirectory() {
+        return getString("persistence.wal.directory", "data/wal");
+    }
+
+    public boolean isWalFsync() {
+        return getBoolean("persistence.wal.fsync", false);
+    }
+
+    public int getSnapshotIntervalMs() {
+        return getInt("persistence.snapshot.interval.ms", 60000);
+    }
+
     private String getString(String key, String defaultValue) {
         return properties.getProperty(key, defaultValue);
     }
@@ -85,6 +198,19 @@ public class Configuration {
         }
     }
 
+    private double getDouble(String key, double defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            System.err.println("Warning: Invalid number value for " + key + ": " + value + ". Using default: " + defaultValue);
+            return defaultValue;
+        }
+    }
+
     private boolean getBoolean(String key, boolean defaultValue) {
         String value = properties.getProperty(key);
         return value != null ? Boolean.parseBoolean(value) : defaultValue;
@@ -2,8 +2,10 @@ package org.pancakelab.http;
 
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
+import org.pancakelab.config.Configuration;
 import org.pancakelab.http.controller.OrderController;
 import org.pancakelab.http.controller.PancakeController;
+import org.pancakelab.metrics.MetricsRegistry;
 import org.pancakelab.service.ServiceFactory;
 import org.pancakelab.util.Logger;
 
@@ -11,11 +13,32 @@ import java.io.IOException;
 
 public class ApiHandler implements HttpHandler {
     private final Router router;
-    private final RateLimiter rateLimiter;
+    // Reads and mutations draw on separate budgets unless rate.limit.per.route is off
+    private final RateLimiter queryLimiter;
+    private final RateLimiter mutationLimiter;
+    private final MetricsRegistry metrics;
+    private final RouteMetrics unmatchedMetrics;
 
     public ApiHandler(ServiceFactory serviceFactory) {
+        this(serviceFactory, new MetricsRegistry());
+    }
+
+    /**
+     * A handler recording per-route request counts, latencies and rate-limit rejections
+     * in {@code metrics}.
+     */
+    public ApiHandler(ServiceFactory serviceFactory, MetricsRegistry metrics) {
+        Configuration config = Configuration.getInstance();
         this.router = new Router();
-        this.rateLimiter = new RateLimiter();
+        this.metrics = metrics;
+        this.unmatchedMetrics = new RouteMetrics(metrics, "unmatched");
+        if (config.isRateLimitPerRoute()) {
+            this.queryLimiter = new RateLimiter(config.getRateLimitQueryMaxRequests());
+            this.mutationLimiter = new RateLimiter(config.getRateLimitMutationMaxRequests());
+        } else {
+            this.queryLimiter = new RateLimiter();
+            this.mutationLimiter = queryLimiter;
+        }
 
         // Initialize controllers
         OrderController orderController = new OrderController(serviceFactory.getOrderService());
@@ -26,48 +49,87 @@ public class ApiHandler implements HttpHandler {
 
     private void setupRoutes(OrderController orderController, PancakeController pancakeController) {
         // Order management routes
-        router.addRoute("POST", "/api/orders", orderController::createOrder);
-        router.addRoute("GET", "/api/orders", orderController::getAllOrders);
-        router.addRoute("GET", "/api/orders/{orderId}", orderController::getOrder);
-        router.addRoute("DELETE", "/api/orders/{orderId}", orderController::deleteOrder);
+        route("POST", "/api/orders", mutationLimiter, cost("create.order", 1), orderController::createOrder);
+        route("GET", "/api/orders", queryLimiter, cost("list.orders", 2), orderController::getAllOrders);
+        route("GET", "/api/orders/{orderId}", queryLimiter, cost("get.order", 1), orderController::getOrder);
+        route("DELETE", "/api/orders/{orderId}", mutationLimiter, cost("delete.order", 1), orderController::deleteOrder);
 
         // Order state management routes
-        router.addRoute("POST", "/api/orders/{orderId}/complete", orderController::completeOrder);
-        router.addRoute("POST", "/api/orders/{orderId}/prepare", orderController::prepareOrder);
-        router.addRoute("POST", "/api/orders/{orderId}/deliver", orderController::startDelivery);
-        router.addRoute("POST", "/api/orders/{orderId}/cancel", orderController::cancelOrder);
+        route("POST", "/api/orders/{orderId}/complete", mutationLimiter, cost("complete.order", 1), orderController::completeOrder);
+        route("POST", "/api/orders/{orderId}/prepare", mutationLimiter, cost("prepare.order", 1), orderController::prepareOrder);
+        route("POST", "/api/orders/{orderId}/deliver", mutationLimiter, cost("deliver.order", 1), orderController::startDelivery);
+        route("POST", "/api/orders/{orderId}/cancel", mutationLimiter, cost("cancel.order", 1), orderController::cancelOrder);
 
         // Pancake management routes
-        router.addRoute("POST", "/api/orders/{orderId}/pancakes", pancakeController::createPancake);
-        router.addRoute("GET", "/api/orders/{orderId}/pancakes", pancakeController::getPancakes);
-        router.addRoute("DELETE", "/api/orders/{orderId}/pancakes/{pancakeId}", pancakeController::deletePancake);
+        route("POST", "/api/orders/{orderId}/pancakes", mutationLimiter, cost("create.pancake", 1), pancakeController::createPancake);
+        route("GET", "/api/orders/{orderId}/pancakes", queryLimiter, cost("list.pancakes", 1), pancakeController::getPancakes);
+        route("DELETE", "/api/orders/{orderId}/pancakes/{pancakeId}", mutationLimiter, cost("delete.pancake", 1), pancakeController::deletePancake);
 
         // Ingredient management routes
-        router.addRoute("POST", "/api/orders/{orderId}/pancakes/{pancakeId}/ingredients", pancakeController::addIngredient);
-        router.addRoute("DELETE", "/api/orders/{orderId}/pancakes/{pancakeId}/ingredients/{ingredientId}", pancakeController::removeIngredient);
+        route("POST", "/api/orders/{orderId}/pancakes/{pancakeId}/ingredients", mutationLimiter, cost("add.ingredient", 1), pancakeController::addIngredient);
+        route("DELETE", "/api/orders/{orderId}/pancakes/{pancakeId}/ingredients/{ingredientId}", mutationLimiter, cost("remove.ingredient", 1), pancakeController::removeIngredient);
+    }
+
+    /**
+     * What a call to {@code route} charges: {@code rate.limit.<route>.cost} with per-route
+     * budgets, one request otherwise.
+     */
+    private int cost(String route, int defaultCost) {
+        Configuration config = Configuration.getInstance();
+        return config.isRateLimitPerRoute() ? config.getRateLimitRouteCost(route, defaultCost) : 1;
+    }
+
+    /**
+     * Registers {@code handler} for {@code method pattern}. Each call first charges
+     * {@code cost} to the client's budget in {@code limiter}, answering 429 once the
+     * budget is spent, and is recorded in the route's metrics either way.
+     */
+    private void route(String method, String pattern, RateLimiter limiter, int cost, Router.RouteHandler handler) {
+        RouteMetrics routeMetrics = new RouteMetrics(metrics, method + " " + pattern);
+        router.addRoute(method, pattern, (exchange, pathParams) -> {
+            long start = System.nanoTime();
+            try {
+                if (allow(limiter, cost, exchange, routeMetrics)) {
+                    handler.handle(exchange, pathParams);
+                }
+            } finally {
+                routeMetrics.record(exchange.getResponseCode(), System.nanoTime() - start);
+            }
+        });
+    }
+
+    private static boolean allow(RateLimiter limiter, int cost, HttpExchange exchange, RouteMetrics routeMetrics)
+            throws IOException {
+        String clientIp = exchange.getRemoteAddress().getAddress().getHostAddress();
+        if (limiter.allowRequest(clientIp, cost)) {
+            return true;
+        }
+        routeMetrics.rateLimited();
+        Logger.warn("Rate limit exceeded for client: %s", clientIp);
+        HttpUtils.sendError(exchange, 429, "Too Many Requests");
+        return false;
     }
 
     @Override
     public void handle(HttpExchange exchange) throws IOException {
-        String clientIp = exchange.getRemoteAddress().getAddress().getHostAddress();
         String path = exchange.getRequestURI().getPath();
         String method = exchange.getRequestMethod();
 
-        Logger.info("Incoming request: %s %s from %s", method, path, clientIp);
-
-        // Rate limiting
-        if (!rateLimiter.allowRequest(clientIp)) {
-            Logger.warn("Rate limit exceeded for client: %s", clientIp);
-            HttpUtils.sendError(exchange, 429, "Too Many Requests");
-            return;
+        if (Logger.isInfoEnabled()) {
+            Logger.info("Incoming request: %s %s from %s",
+                    method, path, exchange.getRemoteAddress().getAddress().getHostAddress());
         }
 
         try {
-            // Try to handle the request with the router
+            // Try to handle the request with the router; each route applies its own rate limit
+            long start = System.nanoTime();
             if (!router.handleRequest(exchange)) {
-                // No route matched
-                Logger.warn("No route found for: %s %s", method, path);
-                HttpUtils.sendError(exchange, 404, "Not Found");
+                // No route matched: probing unknown paths still spends the read budget
+                if (allow(queryLimiter, 1, exchange, unmatchedMetrics)) {
+                    Logger.warn("No route found for: %s %s", method, path);
+                    HttpUtils.sendError(exchange, 404, "Not Found");
+                }
+                unmatchedMetrics.record(exchange.getResponseCode(), System.nanoTime() - start);
             }
         } catch (Exception e) {
             Logger.error("Unexpected error handling request: %s", e.getMessage());
@@ -0,0 +1,59 @@
+package org.pancakelab.http;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * State: window start in the high 40 bits, request count in the low 24. Requests beyond
+ * the limit are not counted, so throttled clients stop contending on the CAS.
+ */
+final class FixedWindowPolicy implements RateLimitPolicy {
+    private static final int COUNT_BITS = 24;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final int maxRequests;
+    private final long windowMs;
+
+    FixedWindowPolicy(int maxRequests, long windowMs) {
+        if (maxRequests <= 0 || maxRequests >= COUNT_MASK || windowMs <= 0) {
+            throw new IllegalArgumentException("Rate limit and window must be positive");
+        }
+        this.maxRequests = maxRequests;
+        this.windowMs = windowMs;
+    }
+
+    @Override
+    public long initialState(long now) {
+        return now << COUNT_BITS;
+    }
+
+    @Override
+    public boolean tryAcquire(AtomicLong state, long now, int permits) {
+        if (permits > maxRequests) {
+            return false;
+        }
+        while (true) {
+            long current = state.get();
+            long next;
+            if (isIdle(current, now)) {
+                next = (now << COUNT_BITS) | permits;
+            } else if ((current & COUNT_MASK) + permits > maxRequests) {
+                return false;
+            } else {
+                next = current + permits;
+            }
+            if (state.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public boolean isIdle(long state, long now) {
+        return now - (state >>> COUNT_BITS) >= windowMs;
+    }
+
+    @Override
+    public boolean isThrottled(long state, long now) {
+        return !isIdle(state, now) && (state & COUNT_MASK) >= maxRequests;
+    }
+}
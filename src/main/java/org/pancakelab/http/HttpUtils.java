@@ -1,22 +1,89 @@
 package org.pancakelab.http;
 
 import com.sun.net.httpserver.HttpExchange;
+import org.pancakelab.config.Configuration;
 import org.pancakelab.exception.PancakeLabException;
+import org.pancakelab.util.Logger;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
 
 /**
  * Utility class for common HTTP response operations
  */
 public class HttpUtils {
+    // Encoded bytes buffered before a streamed array is flushed as a chunk
+    private static final int STREAM_FLUSH_BYTES = 32 * 1024;
+    private static final boolean STREAMING = Configuration.getInstance().isResponseStreaming();
 
     public static void sendJson(HttpExchange exchange, int statusCode, Object response) throws IOException {
-        byte[] responseBody = JsonUtil.serialize(response);
+        JsonWriter responseBody = JsonUtil.write(response);
         exchange.getResponseHeaders().set("Content-Type", "application/json");
-        exchange.sendResponseHeaders(statusCode, responseBody.length);
+        exchange.sendResponseHeaders(statusCode, responseBody.size());
         try (OutputStream os = exchange.getResponseBody()) {
-            os.write(responseBody);
+            responseBody.writeTo(os);
+        }
+    }
+
+    /**
+     * Sends {@code items} as a JSON array, converting each one with {@code toResponse} and
+     * encoding it straight away, so neither the converted list nor the whole body is held
+     * in memory. An array that fits in {@value #STREAM_FLUSH_BYTES} bytes is sent with a
+     * Content-Length like {@link #sendJson}; a larger one switches to chunked transfer
+     * encoding at its first flush. Once streaming has begun a failure can no longer become
+     * an error response: it is logged and the exchange closed, leaving the client with a
+     * truncated body.
+     */
+    public static <T> void sendJsonArray(HttpExchange exchange, int statusCode, Iterable<T> items,
+                                         Function<? super T, ?> toResponse) throws IOException {
+        if (!STREAMING) {
+            List<Object> responses = new ArrayList<>();
+            items.forEach(item -> responses.add(toResponse.apply(item)));
+            sendJson(exchange, statusCode, responses);
+            return;
+        }
+
+        JsonWriter writer = JsonWriter.acquire();
+        OutputStream out = null;
+        try {
+            writer.writeByte('[');
+            boolean first = true;
+            for (T item : items) {
+                if (!first) {
+                    writer.writeByte(',');
+                }
+                first = false;
+                JsonUtil.append(writer, toResponse.apply(item));
+                if (writer.size() >= STREAM_FLUSH_BYTES) {
+                    if (out == null) {
+                        exchange.getResponseHeaders().set("Content-Type", "application/json");
+                        exchange.sendResponseHeaders(statusCode, 0);
+                        out = exchange.getResponseBody();
+                    }
+                    writer.writeTo(out);
+                    writer.reset();
+                }
+            }
+            writer.writeByte(']');
+        } catch (RuntimeException | IOException e) {
+            if (out == null) {
+                throw e;
+            }
+            Logger.error("Aborted streamed response: %s", e.getMessage());
+            exchange.close();
+            return;
+        }
+
+        if (out == null) {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(statusCode, writer.size());
+            out = exchange.getResponseBody();
+        }
+        try (OutputStream body = out) {
+            writer.writeTo(body);
         }
     }
 
@@ -30,7 +97,7 @@ public class HttpUtils {
     }
 
     public static void sendNoContent(HttpExchange exchange) throws IOException {
-        exchange.sendResponseHeaders(204, -1);
+        sendEmpty(exchange, 204);
     }
 
     public static void sendMethodNotAllowed(HttpExchange exchange) throws IOException {
@@ -49,7 +116,13 @@ public class HttpUtils {
         sendError(exchange, 500, message != null ? message : "Internal Server Error");
     }
 
+    /**
+     * Sends a response without a body. The request body is drained first: a bodiless
+     * response finishes the exchange immediately, and the server drops a keep-alive
+     * connection whose request was not read to the end without telling the client.
+     */
     public static void sendEmpty(HttpExchange exchange, int statusCode) throws IOException {
+        exchange.getRequestBody().close();
         exchange.sendResponseHeaders(statusCode, -1);
     }
 
@@ -0,0 +1,372 @@
+package org.pancakelab.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * Single-pass JSON tokenizer that reads UTF-8 bytes straight from an {@link InputStream}.
+ * <p>
+ * Strings are decoded into a reusable scratch buffer, and object keys can be matched
+ * against a known set of names without materializing them, so binding a small request
+ * body allocates little more than the values it produces.
+ */
+final class JsonReader {
+    private static final int BUFFER_SIZE = 512;
+
+    private final InputStream in;
+    private final byte[] buffer;
+    private int position;
+    private int limit;
+    private long consumed;
+    private char[] chars = new char[64];
+    private int length;
+
+    JsonReader(InputStream in) {
+        this.in = in;
+        this.buffer = new byte[BUFFER_SIZE];
+    }
+
+    JsonReader(byte[] json) {
+        this.in = null;
+        this.buffer = json;
+        this.limit = json.length;
+    }
+
+    /**
+     * Returns the next non-whitespace byte without consuming it, or -1 at end of input.
+     */
+    int peek() {
+        while (true) {
+            if (position == limit && !fill()) {
+                return -1;
+            }
+            byte b = buffer[position];
+            if (b == ' ' || b == '\n' || b == '\r' || b == '\t') {
+                position++;
+            } else {
+                return b;
+            }
+        }
+    }
+
+    void expect(char c) {
+        if (peek() != c) {
+            throw error("Expected '" + c + "'");
+        }
+        position++;
+    }
+
+    /**
+     * Consumes {@code c} if it is the next token.
+     */
+    boolean consume(char c) {
+        if (peek() == c) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    void expectEnd() {
+        if (peek() != -1) {
+            throw error("Unexpected trailing content");
+        }
+    }
+
+    /**
+     * Starts an object. Returns false for {@code {}} so callers can skip the member loop.
+     */
+    boolean beginObject() {
+        expect('{');
+        return !consume('}');
+    }
+
+    /**
+     * After a member value: returns true if another member follows, false at {@code }}.
+     */
+    boolean nextMember() {
+        if (consume(',')) {
+            return true;
+        }
+        expect('}');
+        return false;
+    }
+
+    boolean beginArray() {
+        expect('[');
+        return !consume(']');
+    }
+
+    boolean nextElement() {
+        if (consume(',')) {
+            return true;
+        }
+        expect(']');
+        return false;
+    }
+
+    /**
+     * Reads an object key and the following colon, returning the index of the matching
+     * name or -1 if the key is not one of {@code names}.
+     */
+    int readKey(char[][] names) {
+        decodeString();
+        expect(':');
+        for (int i = 0; i < names.length; i++) {
+            char[] name = names[i];
+            if (name.length == length && Arrays.equals(name, 0, length, chars, 0, length)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    String readString() {
+        decodeString();
+        return new String(chars, 0, length);
+    }
+
+    boolean isNull() {
+        if (peek() == 'n') {
+            readLiteral("null");
+            return true;
+        }
+        return false;
+    }
+
+    boolean readBoolean() {
+        int next = peek();
+        if (next == 't') {
+            readLiteral("true");
+            return true;
+        }
+        if (next == 'f') {
+            readLiteral("false");
+            return false;
+        }
+        if (next == '"') {
+            return Boolean.parseBoolean(readString());
+        }
+        throw error("Expected boolean");
+    }
+
+    /**
+     * Reads an integral number. Quoted numbers are accepted for compatibility with
+     * clients that send every value as a string.
+     */
+    long readLong() {
+        int next = peek();
+        if (next == '"') {
+            try {
+                return Long.parseLong(readString());
+            } catch (NumberFormatException e) {
+                throw error("Expected number");
+            }
+        }
+        boolean negative = next == '-';
+        if (negative) {
+            position++;
+        }
+        long value = 0;
+        int digits = 0;
+        while (true) {
+            if (position == limit && !fill()) {
+                break;
+            }
+            byte b = buffer[position];
+            if (b < '0' || b > '9') {
+                break;
+            }
+            if (value > (Long.MAX_VALUE - (b - '0')) / 10) {
+                throw error("Number out of range");
+            }
+            value = value * 10 + (b - '0');
+            position++;
+            digits++;
+        }
+        if (digits == 0) {
+            throw error("Expected number");
+        }
+        int after = position < limit || fill() ? buffer[position] : -1;
+        if (after == '.' || after == 'e' || after == 'E') {
+            throw error("Expected integer");
+        }
+        return negative ? -value : value;
+    }
+
+    double readDouble() {
+        if (peek() == '"') {
+            return Double.parseDouble(readString());
+        }
+        length = 0;
+        while (true) {
+            if (position == limit && !fill()) {
+                break;
+            }
+            byte b = buffer[position];
+            if ((b >= '0' && b <= '9') || b == '-' || b == '+' || b == '.' || b == 'e' || b == 'E') {
+                append((char) b);
+                position++;
+            } else {
+                break;
+            }
+        }
+        try {
+            return Double.parseDouble(new String(chars, 0, length));
+        } catch (NumberFormatException e) {
+            throw error("Expected number");
+        }
+    }
+
+    /**
+     * Skips over any value, including nested objects and arrays.
+     */
+    void skipValue() {
+        int next = peek();
+        switch (next) {
+            case '"' -> decodeString();
+            case '{' -> {
+                if (beginObject()) {
+                    do {
+                        decodeString();
+                        expect(':');
+                        skipValue();
+                    } while (nextMember());
+                }
+            }
+            case '[' -> {
+                if (beginArray()) {
+                    do {
+                        skipValue();
+                    } while (nextElement());
+                }
+            }
+            case 't' -> readLiteral("true");
+            case 'f' -> readLiteral("false");
+            case 'n' -> readLiteral("null");
+            case -1 -> throw error("Unexpected end of input");
+            default -> readDouble();
+        }
+    }
+
+    IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at offset " + (consumed + position));
+    }
+
+    private void readLiteral(String literal) {
+        for (int i = 0; i < literal.length(); i++) {
+            if (readByte() != literal.charAt(i)) {
+                throw error("Invalid literal, expected " + literal);
+            }
+        }
+    }
+
+    private void decodeString() {
+        expect('"');
+        length = 0;
+        while (true) {
+            int b = readByte();
+            if (b == '"') {
+                return;
+            }
+            if (b == '\\') {
+                decodeEscape();
+            } else if (b < 0x20) {
+                throw error(b < 0 ? "Unterminated string" : "Unescaped control character in string");
+            } else if (b < 0x80) {
+                append((char) b);
+            } else {
+                decodeMultiByte(b);
+            }
+        }
+    }
+
+    private void decodeEscape() {
+        int b = readByte();
+        switch (b) {
+            case '"' -> append('"');
+            case '\\' -> append('\\');
+            case '/' -> append('/');
+            case 'b' -> append('\b');
+            case 'f' -> append('\f');
+            case 'n' -> append('\n');
+            case 'r' -> append('\r');
+            case 't' -> append('\t');
+            case 'u' -> {
+                int code = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(readByte(), 16);
+                    if (digit < 0) {
+                        throw error("Invalid unicode escape");
+                    }
+                    code = (code << 4) | digit;
+                }
+                append((char) code);
+            }
+            default -> throw error("Invalid escape sequence");
+        }
+    }
+
+    private void decodeMultiByte(int first) {
+        int codePoint;
+        int continuation;
+        if ((first & 0xE0) == 0xC0) {
+            codePoint = first & 0x1F;
+            continuation = 1;
+        } else if ((first & 0xF0) == 0xE0) {
+            codePoint = first & 0x0F;
+            continuation = 2;
+        } else if ((first & 0xF8) == 0xF0) {
+            codePoint = first & 0x07;
+            continuation = 3;
+        } else {
+            throw error("Invalid UTF-8");
+        }
+        for (int i = 0; i < continuation; i++) {
+            int b = readByte();
+            if ((b & 0xC0) != 0x80) {
+                throw error("Invalid UTF-8");
+            }
+            codePoint = (codePoint << 6) | (b & 0x3F);
+        }
+        if (Character.isBmpCodePoint(codePoint)) {
+            append((char) codePoint);
+        } else {
+            append(Character.highSurrogate(codePoint));
+            append(Character.lowSurrogate(codePoint));
+        }
+    }
+
+    private void append(char c) {
+        if (length == chars.length) {
+            chars = Arrays.copyOf(chars, length * 2);
+        }
+        chars[length++] = c;
+    }
+
+    /**
+     * Returns the next raw byte as 0-255, or -1 at end of input.
+     */
+    private int readByte() {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    private boolean fill() {
+        if (in == null) {
+            return false;
+        }
+        try {
+            consumed += limit;
+            position = 0;
+            limit = Math.max(0, in.read(buffer, 0, buffer.length));
+            return limit > 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read request body", e);
+        }
+    }
+}
@@ -2,32 +2,48 @@ package org.pancakelab.http;
 
 import com.sun.net.httpserver.HttpExchange;
 
-import java.io.BufferedReader;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class JsonUtil {
+    private static final ClassValue<ObjectReader> READERS = new ClassValue<>() {
+        @Override
+        protected ObjectReader computeValue(Class<?> type) {
+            return ObjectReader.of(type);
+        }
+    };
+
     public static <T> T deserialize(InputStream json, Class<T> clazz) {
-        String jsonString = new BufferedReader(new InputStreamReader(json))
-                .lines().collect(Collectors.joining());
-        return fromJson(jsonString, clazz);
+        try {
+            return read(new JsonReader(json), clazz);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to parse JSON: " + e.getMessage(), e);
+        }
     }
 
     public static <T> T fromJson(HttpExchange exchange, Class<T> clazz) {
         try {
-            String jsonString = new BufferedReader(new InputStreamReader(exchange.getRequestBody()))
-                    .lines().collect(Collectors.joining());
-            return fromJson(jsonString, clazz);
+            return read(new JsonReader(exchange.getRequestBody()), clazz);
         } catch (Exception e) {
             throw new RuntimeException("Failed to parse JSON from request: " + e.getMessage(), e);
         }
     }
 
     public static byte[] serialize(Object obj) {
-        return toJson(obj).getBytes();
+        return write(obj).toByteArray();
     }
 
     public static <T> T parseResponse(HttpResponse<String> response, Class<T> clazz) {
@@ -36,224 +52,469 @@ public class JsonUtil {
 
     public static <T> T fromJson(String jsonString, Class<T> clazz) {
         try {
-            Map<String, Object> jsonMap = parseJson(jsonString);
-
-            if (clazz.isRecord()) {
-                return createRecordInstance(jsonMap, clazz);
-            } else {
-                return createClassInstance(jsonMap, clazz);
-            }
+            return read(new JsonReader(jsonString.getBytes(StandardCharsets.UTF_8)), clazz);
         } catch (Exception e) {
             throw new RuntimeException("Failed to parse JSON: " + e.getMessage(), e);
         }
     }
 
-    private static <T> T createRecordInstance(Map<String, Object> jsonMap, Class<T> clazz) throws Exception {
-        var components = clazz.getRecordComponents();
-        Object[] args = new Object[components.length];
-        Class<?>[] argTypes = new Class<?>[components.length];
+    private static <T> T read(JsonReader reader, Class<T> clazz) {
+        T value = clazz.cast(READERS.get(clazz).read(reader));
+        reader.expectEnd();
+        return value;
+    }
+
+    /**
+     * Reads one JSON value into a Java value of a fixed type.
+     */
+    @FunctionalInterface
+    private interface ValueReader {
+        Object read(JsonReader reader);
+    }
 
-        for (int i = 0; i < components.length; i++) {
-            var component = components[i];
-            argTypes[i] = component.getType();
-            Object value = jsonMap.get(component.getName());
-            args[i] = convertValue(value, component.getType());
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ValueReader valueReader(Type type) {
+        if (type instanceof ParameterizedType parameterized
+                && parameterized.getRawType() instanceof Class<?> raw
+                && Collection.class.isAssignableFrom(raw)) {
+            ValueReader element = valueReader(parameterized.getActualTypeArguments()[0]);
+            return reader -> readList(reader, element);
         }
+        Class<?> clazz = type instanceof Class<?> c ? c : Object.class;
 
-        return clazz.getDeclaredConstructor(argTypes).newInstance(args);
+        if (clazz == String.class) {
+            return reader -> reader.isNull() ? null : reader.readString();
+        }
+        if (clazz == int.class || clazz == Integer.class) {
+            return reader -> reader.isNull() ? null : toInt(reader);
+        }
+        if (clazz == long.class || clazz == Long.class) {
+            return reader -> reader.isNull() ? null : reader.readLong();
+        }
+        if (clazz == double.class || clazz == Double.class) {
+            return reader -> reader.isNull() ? null : reader.readDouble();
+        }
+        if (clazz == boolean.class || clazz == Boolean.class) {
+            return reader -> reader.isNull() ? null : reader.readBoolean();
+        }
+        if (clazz == UUID.class) {
+            return reader -> reader.isNull() ? null : UUID.fromString(reader.readString());
+        }
+        if (clazz.isEnum()) {
+            return reader -> reader.isNull() ? null : Enum.valueOf((Class<? extends Enum>) clazz, reader.readString());
+        }
+        if (clazz == Object.class || Collection.class.isAssignableFrom(clazz) || Map.class.isAssignableFrom(clazz)) {
+            return JsonUtil::readAny;
+        }
+        return reader -> reader.isNull() ? null : READERS.get(clazz).read(reader);
     }
 
-    private static <T> T createClassInstance(Map<String, Object> jsonMap, Class<T> clazz) throws Exception {
-        T instance = clazz.getDeclaredConstructor().newInstance();
-        for (var field : clazz.getDeclaredFields()) {
-            field.setAccessible(true);
-            if (jsonMap.containsKey(field.getName())) {
-                field.set(instance, convertValue(jsonMap.get(field.getName()), field.getType()));
-            }
-            field.setAccessible(false);
+    private static int toInt(JsonReader reader) {
+        long value = reader.readLong();
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw reader.error("Number out of int range");
         }
-        return instance;
+        return (int) value;
     }
 
-    @SuppressWarnings("unchecked")
-    private static Object convertValue(Object value, Class<?> targetType) {
-        if (value == null) return null;
-
-        if (targetType == UUID.class && value instanceof String) {
-            return UUID.fromString((String) value);
+    private static List<Object> readList(JsonReader reader, ValueReader element) {
+        if (reader.isNull()) {
+            return null;
         }
-
-        if (targetType.isEnum() && value instanceof String) {
-            return Enum.valueOf((Class<? extends Enum>) targetType, (String) value);
+        List<Object> list = new ArrayList<>();
+        if (reader.beginArray()) {
+            do {
+                list.add(element.read(reader));
+            } while (reader.nextElement());
         }
+        return list;
+    }
 
-        if ((targetType == int.class || targetType == Integer.class) && value instanceof String) {
-            return Integer.parseInt((String) value);
+    /**
+     * Untyped fallback: objects become maps, arrays lists, numbers Long or Double.
+     */
+    private static Object readAny(JsonReader reader) {
+        int next = reader.peek();
+        if (next == '"') {
+            return reader.readString();
         }
-
-        if ((targetType == long.class || targetType == Long.class) && value instanceof String) {
-            return Long.parseLong((String) value);
+        if (next == '{') {
+            Map<String, Object> map = new LinkedHashMap<>();
+            if (reader.beginObject()) {
+                do {
+                    String key = reader.readString();
+                    reader.expect(':');
+                    map.put(key, readAny(reader));
+                } while (reader.nextMember());
+            }
+            return map;
         }
-
-        if ((targetType == boolean.class || targetType == Boolean.class) && value instanceof String) {
-            return Boolean.parseBoolean((String) value);
+        if (next == '[') {
+            return readList(reader, JsonUtil::readAny);
         }
-
-        if (targetType == List.class) {
-            if (value instanceof List) return value;
-            if (value instanceof String) return Collections.singletonList(value);
-            return Collections.emptyList();
+        if (next == 't' || next == 'f') {
+            return reader.readBoolean();
         }
-
-        return value;
+        if (reader.isNull()) {
+            return null;
+        }
+        double number = reader.readDouble();
+        return number == Math.rint(number) && Math.abs(number) < 0x1p53 ? (Object) (long) number : number;
     }
 
-    private static Map<String, Object> parseJson(String json) {
-        json = json.trim();
-        if (!json.startsWith("{") || !json.endsWith("}")) {
-            throw new IllegalArgumentException("Invalid JSON format");
+    /**
+     * Binds a JSON object to a record (through its canonical constructor) or to a plain
+     * class (through its no-arg constructor and fields). Built once per type.
+     */
+    private static final class ObjectReader {
+        private final char[][] names;
+        private final ValueReader[] readers;
+        private final Object[] defaults;
+        private final Constructor<?> constructor;
+        private final Field[] fields;
+
+        private ObjectReader(char[][] names, ValueReader[] readers, Object[] defaults,
+                             Constructor<?> constructor, Field[] fields) {
+            this.names = names;
+            this.readers = readers;
+            this.defaults = defaults;
+            this.constructor = constructor;
+            this.fields = fields;
         }
 
-        Map<String, Object> result = new HashMap<>();
-        json = json.substring(1, json.length() - 1).trim();
-
-        StringBuilder key = new StringBuilder();
-        StringBuilder value = new StringBuilder();
-        boolean inString = false;
-        boolean inKey = true;
-        int depth = 0;
-
-        for (int i = 0; i < json.length(); i++) {
-            char c = json.charAt(i);
+        static ObjectReader of(Class<?> type) {
+            try {
+                if (type.isRecord()) {
+                    RecordComponent[] components = type.getRecordComponents();
+                    Class<?>[] types = new Class<?>[components.length];
+                    char[][] names = new char[components.length][];
+                    ValueReader[] readers = new ValueReader[components.length];
+                    Object[] defaults = new Object[components.length];
+                    for (int i = 0; i < components.length; i++) {
+                        types[i] = components[i].getType();
+                        names[i] = components[i].getName().toCharArray();
+                        readers[i] = valueReader(components[i].getGenericType());
+                        defaults[i] = defaultValue(types[i]);
+                    }
+                    Constructor<?> constructor = type.getDeclaredConstructor(types);
+                    constructor.setAccessible(true);
+                    return new ObjectReader(names, readers, defaults, constructor, null);
+                }
 
-            if (c == '"' && (i == 0 || json.charAt(i - 1) != '\\')) {
-                inString = !inString;
-                continue;
+                Field[] fields = Arrays.stream(type.getDeclaredFields())
+                        .filter(f -> !Modifier.isStatic(f.getModifiers()) && !Modifier.isTransient(f.getModifiers()))
+                        .toArray(Field[]::new);
+                char[][] names = new char[fields.length][];
+                ValueReader[] readers = new ValueReader[fields.length];
+                for (int i = 0; i < fields.length; i++) {
+                    fields[i].setAccessible(true);
+                    names[i] = fields[i].getName().toCharArray();
+                    readers[i] = valueReader(fields[i].getGenericType());
+                }
+                Constructor<?> constructor = type.getDeclaredConstructor();
+                constructor.setAccessible(true);
+                return new ObjectReader(names, readers, null, constructor, fields);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                throw new IllegalArgumentException("Type is not JSON-bindable: " + type.getName(), e);
             }
+        }
 
-            if (!inString) {
-                if (c == '{' || c == '[') depth++;
-                if (c == '}' || c == ']') depth--;
-
-                if (depth == 0) {
-                    if (c == ':') {
-                        inKey = false;
-                        continue;
-                    }
-                    if (c == ',' && !inKey) {
-                        addKeyValue(result, key.toString().trim(), value.toString().trim());
-                        key = new StringBuilder();
-                        value = new StringBuilder();
-                        inKey = true;
-                        continue;
+        Object read(JsonReader reader) {
+            Object[] values = new Object[names.length];
+            boolean[] present = new boolean[names.length];
+            if (reader.beginObject()) {
+                do {
+                    int index = reader.readKey(names);
+                    if (index < 0) {
+                        reader.skipValue();
+                    } else {
+                        values[index] = readers[index].read(reader);
+                        present[index] = true;
                     }
+                } while (reader.nextMember());
+            }
+            try {
+                return fields == null ? newRecord(values) : newInstance(values, present);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                throw cause instanceof RuntimeException re ? re : new IllegalArgumentException(cause);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Failed to instantiate " + constructor.getDeclaringClass().getName(), e);
+            }
+        }
+
+        private Object newRecord(Object[] values) throws ReflectiveOperationException {
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] == null) {
+                    values[i] = defaults[i];
                 }
             }
+            return constructor.newInstance(values);
+        }
 
-            if (inKey) {
-                key.append(c);
-            } else {
-                value.append(c);
+        private Object newInstance(Object[] values, boolean[] present) throws ReflectiveOperationException {
+            Object instance = constructor.newInstance();
+            for (int i = 0; i < fields.length; i++) {
+                if (present[i] && (values[i] != null || !fields[i].getType().isPrimitive())) {
+                    fields[i].set(instance, values[i]);
+                }
             }
+            return instance;
         }
 
-        if (!key.isEmpty() || !value.isEmpty()) {
-            addKeyValue(result, key.toString().trim(), value.toString().trim());
+        private static Object defaultValue(Class<?> type) {
+            if (!type.isPrimitive()) return null;
+            if (type == boolean.class) return false;
+            if (type == long.class) return 0L;
+            if (type == double.class) return 0d;
+            if (type == float.class) return 0f;
+            if (type == char.class) return '\0';
+            if (type == byte.class) return (byte) 0;
+            if (type == short.class) return (short) 0;
+            return 0;
         }
+    }
+
+    public static String toJson(Object obj) {
+        return write(obj).toUtf8String();
+    }
 
-        return result;
+    /**
+     * Serializes into the calling thread's reusable buffer. The result is only valid until
+     * the next call on the same thread.
+     */
+    static JsonWriter write(Object obj) {
+        JsonWriter writer = JsonWriter.acquire();
+        writeValue(writer, obj);
+        return writer;
     }
 
-    private static void addKeyValue(Map<String, Object> map, String key, String value) {
-        key = key.replaceAll("\"", "").trim();
-        value = value.trim();
+    /**
+     * Appends {@code value} to a writer in use, for callers that stream an array element
+     * by element.
+     */
+    static void append(JsonWriter writer, Object value) {
+        writeValue(writer, value);
+    }
 
-        if (value.startsWith("[") && value.endsWith("]")) {
-            List<String> items = parseJsonArray(value);
-            map.put(key, items);
-        } else if (value.startsWith("{") && value.endsWith("}")) {
-            map.put(key, parseJson(value));
+    private static void writeValue(JsonWriter writer, Object value) {
+        if (value == null) {
+            writer.writeNull();
+        } else if (value instanceof String string) {
+            writer.writeString(string);
+        } else if (value instanceof UUID uuid) {
+            writer.writeUuid(uuid);
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            writer.writeLong(((Number) value).longValue());
+        } else if (value instanceof Boolean bool) {
+            writer.writeBoolean(bool);
+        } else if (value instanceof Enum<?> constant) {
+            writer.writeRaw(ENUM_NAMES.get(constant.getDeclaringClass())[constant.ordinal()]);
+        } else if (value instanceof Number number) {
+            writeNumber(writer, number);
+        } else if (value instanceof Map<?, ?> map) {
+            writeMap(writer, map);
+        } else if (value instanceof Iterable<?> iterable) {
+            writeIterable(writer, iterable);
         } else {
-            map.put(key, value.replaceAll("\"", ""));
+            WRITERS.get(value.getClass()).write(writer, value);
         }
     }
 
-    private static List<String> parseJsonArray(String arrayJson) {
-        arrayJson = arrayJson.substring(1, arrayJson.length() - 1).trim();
-        if (arrayJson.isEmpty()) return Collections.emptyList();
+    private static void writeNumber(JsonWriter writer, Number number) {
+        double d = number.doubleValue();
+        if (Double.isNaN(d) || Double.isInfinite(d)) {
+            writer.writeNull();
+        } else {
+            writer.writeRaw(number.toString().getBytes(StandardCharsets.US_ASCII));
+        }
+    }
 
-        List<String> items = new ArrayList<>();
-        StringBuilder current = new StringBuilder();
-        boolean inString = false;
-        int depth = 0;
+    private static void writeMap(JsonWriter writer, Map<?, ?> map) {
+        writer.writeByte('{');
+        boolean first = true;
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if (!first) {
+                writer.writeByte(',');
+            }
+            first = false;
+            writer.writeString(String.valueOf(entry.getKey()));
+            writer.writeByte(':');
+            writeValue(writer, entry.getValue());
+        }
+        writer.writeByte('}');
+    }
 
-        for (int i = 0; i < arrayJson.length(); i++) {
-            char c = arrayJson.charAt(i);
+    private static void writeIterable(JsonWriter writer, Iterable<?> iterable) {
+        writer.writeByte('[');
+        boolean first = true;
+        for (Object element : iterable) {
+            if (!first) {
+                writer.writeByte(',');
+            }
+            first = false;
+            writeValue(writer, element);
+        }
+        writer.writeByte(']');
+    }
 
-            if (c == '"' && (i == 0 || arrayJson.charAt(i - 1) != '\\')) {
-                inString = !inString;
+    private static final ClassValue<byte[][]> ENUM_NAMES = new ClassValue<>() {
+        @Override
+        protected byte[][] computeValue(Class<?> type) {
+            Object[] constants = type.getEnumConstants();
+            byte[][] names = new byte[constants.length][];
+            for (int i = 0; i < constants.length; i++) {
+                names[i] = ("\"" + ((Enum<?>) constants[i]).name() + "\"").getBytes(StandardCharsets.UTF_8);
             }
+            return names;
+        }
+    };
 
-            if (!inString) {
-                if (c == '{' || c == '[') depth++;
-                if (c == '}' || c == ']') depth--;
+    private static final ClassValue<ObjectWriter> WRITERS = new ClassValue<>() {
+        @Override
+        protected ObjectWriter computeValue(Class<?> type) {
+            return ObjectWriter.of(type);
+        }
+    };
+
+    /**
+     * Writes a record (through its component accessors) or a plain object (through its
+     * fields) as a JSON object. Accessors are resolved to method handles once per type;
+     * primitive properties are read without boxing and null properties are omitted.
+     */
+    private static final class ObjectWriter {
+        private final Property[] properties;
+
+        private ObjectWriter(Property[] properties) {
+            this.properties = properties;
+        }
 
-                if (depth == 0 && c == ',') {
-                    items.add(current.toString().trim());
-                    current = new StringBuilder();
-                    continue;
+        static ObjectWriter of(Class<?> type) {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            List<Property> properties = new ArrayList<>();
+            try {
+                if (type.isRecord()) {
+                    for (RecordComponent component : type.getRecordComponents()) {
+                        Method accessor = component.getAccessor();
+                        accessor.setAccessible(true);
+                        properties.add(Property.of(component.getName(), component.getType(), lookup.unreflect(accessor)));
+                    }
+                } else {
+                    for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                        for (Field field : c.getDeclaredFields()) {
+                            if (Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers())
+                                    || field.isSynthetic()) {
+                                continue;
+                            }
+                            field.setAccessible(true);
+                            properties.add(Property.of(field.getName(), field.getType(), lookup.unreflectGetter(field)));
+                        }
+                    }
                 }
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                throw new IllegalArgumentException("Type is not JSON-serializable: " + type.getName(), e);
             }
-
-            current.append(c);
+            return new ObjectWriter(properties.toArray(new Property[0]));
         }
 
-        if (!current.isEmpty()) {
-            items.add(current.toString().trim());
+        void write(JsonWriter writer, Object value) {
+            writer.writeByte('{');
+            boolean first = true;
+            try {
+                for (Property property : properties) {
+                    first = property.write(writer, value, first) && first;
+                }
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException("Failed to serialize " + value.getClass().getName(), e);
+            }
+            writer.writeByte('}');
         }
-
-        return items.stream()
-                .map(s -> s.replaceAll("^\"|\"$", ""))
-                .collect(Collectors.toList());
     }
 
-    public static String toJson(Object obj) {
-        if (obj == null) return "null";
-        if (obj instanceof Map) return mapToJson((Map<?, ?>) obj);
-        if (obj instanceof List) return listToJson((List<?>) obj);
-        if (obj instanceof String) return "\"" + obj + "\"";
-        if (obj instanceof Number || obj instanceof Boolean) return obj.toString();
-        if (obj instanceof UUID) return "\"" + obj + "\"";
-        if (obj instanceof Enum<?>) return "\"" + obj + "\"";
-        return objectToJson(obj);
-    }
+    private static final class Property {
+        private static final int REFERENCE = 0;
+        private static final int INT = 1;
+        private static final int LONG = 2;
+        private static final int BOOLEAN = 3;
+        private static final int DOUBLE = 4;
+
+        private final byte[] name;
+        private final MethodHandle getter;
+        private final int kind;
+
+        private Property(byte[] name, MethodHandle getter, int kind) {
+            this.name = name;
+            this.getter = getter;
+            this.kind = kind;
+        }
 
-    private static String mapToJson(Map<?, ?> map) {
-        return "{" + map.entrySet().stream()
-                .map(e -> "\"" + e.getKey() + "\":" + toJson(e.getValue()))
-                .collect(Collectors.joining(",")) + "}";
-    }
+        static Property of(String name, Class<?> type, MethodHandle getter) {
+            JsonWriter nameWriter = new JsonWriter();
+            nameWriter.writeString(name);
+            nameWriter.writeByte(':');
+            byte[] nameBytes = nameWriter.toByteArray();
 
-    private static String listToJson(List<?> list) {
-        return "[" + list.stream()
-                .map(JsonUtil::toJson)
-                .collect(Collectors.joining(",")) + "]";
-    }
+            if (type == int.class || type == short.class || type == byte.class || type == char.class) {
+                return new Property(nameBytes, getter.asType(MethodType.methodType(int.class, Object.class)), INT);
+            }
+            if (type == long.class) {
+                return new Property(nameBytes, getter.asType(MethodType.methodType(long.class, Object.class)), LONG);
+            }
+            if (type == boolean.class) {
+                return new Property(nameBytes, getter.asType(MethodType.methodType(boolean.class, Object.class)), BOOLEAN);
+            }
+            if (type == double.class || type == float.class) {
+                return new Property(nameBytes, getter.asType(MethodType.methodType(double.class, Object.class)), DOUBLE);
+            }
+            return new Property(nameBytes, getter.asType(MethodType.methodType(Object.class, Object.class)), REFERENCE);
+        }
 
-    private static String objectToJson(Object obj) {
-        try {
-            Map<String, Object> map = new HashMap<>();
-            for (var field : obj.getClass().getDeclaredFields()) {
-                field.setAccessible(true);
-                Object value = field.get(obj);
-                if (value != null) {
-                    map.put(field.getName(), value);
+        /**
+         * Writes this property of {@code owner}, preceded by a comma unless it is the first.
+         *
+         * @return false if something was written, true if the property was skipped as null
+         */
+        boolean write(JsonWriter writer, Object owner, boolean first) throws Throwable {
+            switch (kind) {
+                case INT -> {
+                    int value = (int) getter.invokeExact(owner);
+                    writeName(writer, first);
+                    writer.writeLong(value);
+                }
+                case LONG -> {
+                    long value = (long) getter.invokeExact(owner);
+                    writeName(writer, first);
+                    writer.writeLong(value);
+                }
+                case BOOLEAN -> {
+                    boolean value = (boolean) getter.invokeExact(owner);
+                    writeName(writer, first);
+                    writer.writeBoolean(value);
+                }
+                case DOUBLE -> {
+                    double value = (double) getter.invokeExact(owner);
+                    writeName(writer, first);
+                    writeNumber(writer, value);
+                }
+                default -> {
+                    Object value = (Object) getter.invokeExact(owner);
+                    if (value == null) {
+                        return true;
+                    }
+                    writeName(writer, first);
+                    writeValue(writer, value);
                 }
-                field.setAccessible(false);
             }
-            return mapToJson(map);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to serialize to JSON", e);
+            return false;
+        }
+
+        private void writeName(JsonWriter writer, boolean first) {
+            if (!first) {
+                writer.writeByte(',');
+            }
+            writer.writeRaw(name);
         }
     }
 }
@@ -0,0 +1,196 @@
+package org.pancakelab.http;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Growable UTF-8 byte buffer with JSON primitives. Numbers and UUIDs are written digit
+ * by digit and strings are escaped in place, so serializing never builds intermediate
+ * Strings. One instance per thread is reused across responses via {@link #acquire()}.
+ */
+final class JsonWriter {
+    private static final int INITIAL_CAPACITY = 1024;
+    // Buffers that grew past this for one large response are not kept for the next one
+    private static final int RETAINED_CAPACITY = 256 * 1024;
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+    private static final byte[] TRUE = {'t', 'r', 'u', 'e'};
+    private static final byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+    private static final byte[] MIN_LONG = Long.toString(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+    private static final ThreadLocal<JsonWriter> CACHE = ThreadLocal.withInitial(JsonWriter::new);
+
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+    private int size;
+
+    static JsonWriter acquire() {
+        JsonWriter writer = CACHE.get();
+        if (writer.buffer.length > RETAINED_CAPACITY) {
+            writer.buffer = new byte[INITIAL_CAPACITY];
+        }
+        writer.size = 0;
+        return writer;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Drops the buffered bytes, e.g. once they have been written out.
+     */
+    void reset() {
+        size = 0;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    String toUtf8String() {
+        return new String(buffer, 0, size, StandardCharsets.UTF_8);
+    }
+
+    void writeTo(OutputStream out) throws IOException {
+        out.write(buffer, 0, size);
+    }
+
+    void writeByte(char c) {
+        ensure(1);
+        buffer[size++] = (byte) c;
+    }
+
+    void writeRaw(byte[] bytes) {
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+    }
+
+    void writeNull() {
+        writeRaw(NULL);
+    }
+
+    void writeBoolean(boolean value) {
+        writeRaw(value ? TRUE : FALSE);
+    }
+
+    void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            writeRaw(MIN_LONG);
+            return;
+        }
+        ensure(20);
+        if (value < 0) {
+            buffer[size++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long v = value; v >= 10; v /= 10) {
+            digits++;
+        }
+        int end = size + digits;
+        for (int i = end - 1; i >= size; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        size = end;
+    }
+
+    void writeUuid(UUID uuid) {
+        ensure(38);
+        buffer[size++] = '"';
+        long msb = uuid.getMostSignificantBits();
+        long lsb = uuid.getLeastSignificantBits();
+        writeHex(msb >>> 32, 8);
+        buffer[size++] = '-';
+        writeHex(msb >>> 16, 4);
+        buffer[size++] = '-';
+        writeHex(msb, 4);
+        buffer[size++] = '-';
+        writeHex(lsb >>> 48, 4);
+        buffer[size++] = '-';
+        writeHex(lsb, 12);
+        buffer[size++] = '"';
+    }
+
+    /**
+     * Writes a quoted, escaped JSON string, encoding UTF-8 without an intermediate byte[].
+     */
+    void writeString(CharSequence value) {
+        int length = value.length();
+        ensure(length + 2);
+        buffer[size++] = '"';
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                ensure(1);
+                buffer[size++] = (byte) c;
+            } else if (c < 0x80) {
+                writeEscape(c);
+            } else if (c < 0x800) {
+                ensure(2);
+                buffer[size++] = (byte) (0xC0 | (c >> 6));
+                buffer[size++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                ensure(4);
+                buffer[size++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[size++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[size++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[size++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // Lone surrogate: not representable in UTF-8, emit as an escape
+                writeUnicodeEscape(c);
+            } else {
+                ensure(3);
+                buffer[size++] = (byte) (0xE0 | (c >> 12));
+                buffer[size++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[size++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        ensure(1);
+        buffer[size++] = '"';
+    }
+
+    private void writeEscape(char c) {
+        switch (c) {
+            case '"' -> writeTwo('\\', '"');
+            case '\\' -> writeTwo('\\', '\\');
+            case '\n' -> writeTwo('\\', 'n');
+            case '\r' -> writeTwo('\\', 'r');
+            case '\t' -> writeTwo('\\', 't');
+            case '\b' -> writeTwo('\\', 'b');
+            case '\f' -> writeTwo('\\', 'f');
+            default -> writeUnicodeEscape(c);
+        }
+    }
+
+    private void writeTwo(char a, char b) {
+        ensure(2);
+        buffer[size++] = (byte) a;
+        buffer[size++] = (byte) b;
+    }
+
+    private void writeUnicodeEscape(char c) {
+        ensure(6);
+        buffer[size++] = '\\';
+        buffer[size++] = 'u';
+        writeHex(c, 4);
+    }
+
+    private void writeHex(long value, int digits) {
+        for (int i = digits - 1; i >= 0; i--) {
+            buffer[size + i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+        size += digits;
+    }
+
+    private void ensure(int additional) {
+        if (size + additional > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + additional));
+        }
+    }
+}
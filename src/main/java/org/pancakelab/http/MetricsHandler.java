@@ -0,0 +1,38 @@
+package org.pancakelab.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import org.pancakelab.metrics.MetricsRegistry;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serves {@code GET /metrics} in the Prometheus text exposition format.
+ */
+public class MetricsHandler implements HttpHandler {
+    private final MetricsRegistry registry;
+
+    public MetricsHandler(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        if (!"/metrics".equals(exchange.getRequestURI().getPath())) {
+            HttpUtils.sendError(exchange, 404, "Not Found");
+            return;
+        }
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            HttpUtils.sendMethodNotAllowed(exchange);
+            return;
+        }
+        byte[] body = registry.scrape().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -1,14 +1,19 @@
 package org.pancakelab.http;
 
-import com.sun.net.httpserver.HttpHandler;
 import com.sun.net.httpserver.HttpServer;
 import org.pancakelab.config.Configuration;
+import org.pancakelab.metrics.MetricsRegistry;
 import org.pancakelab.service.ServiceFactory;
+import org.pancakelab.util.Logger;
 
 import java.io.IOException;
+import java.lang.reflect.Method;
 import java.net.InetSocketAddress;
+import java.util.Locale;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -16,40 +21,104 @@ import java.util.concurrent.atomic.AtomicInteger;
 public class PancakeHttpServer {
     private final HttpServer server;
     private final ExecutorService executor;
+    private final TimeoutHandler timeoutHandler;
     private final Configuration config;
+    private final MetricsRegistry metrics = new MetricsRegistry();
 
     public PancakeHttpServer(int port, int poolSize, ServiceFactory serviceFactory) throws IOException {
+        this(port, poolSize, ExecutorMode.fromString(Configuration.getInstance().getServerExecutor()), serviceFactory);
+    }
+
+    public PancakeHttpServer(int port, int poolSize, ExecutorMode executorMode, ServiceFactory serviceFactory)
+            throws IOException {
         this.config = Configuration.getInstance();
         server = HttpServer.create(new InetSocketAddress(port), config.getServerBacklogSize());
-        executor = createExecutor(poolSize);
+        executor = createExecutor(executorMode, poolSize);
         server.setExecutor(executor);
 
         // Use the new Router-based ApiHandler with timeout wrapper
-        HttpHandler apiHandler = new TimeoutHandler(new ApiHandler(serviceFactory), config.getRequestTimeoutMs());
-        server.createContext("/api", apiHandler);
+        timeoutHandler = new TimeoutHandler(new ApiHandler(serviceFactory, metrics), config.getRequestTimeoutMs(),
+                metrics.counter("pancakelab_http_timeouts_total", "Requests answered 408 after the deadline."));
+        server.createContext("/api", timeoutHandler);
+        if (config.isMetricsEndpointEnabled()) {
+            server.createContext("/metrics", new MetricsHandler(metrics));
+        }
+    }
+
+    /**
+     * Applies {@code server.tcp.nodelay} to the JDK HTTP server. The setting is process-wide:
+     * the JDK reads {@code sun.net.httpserver.nodelay} once, when the first server starts, and
+     * every server in the JVM shares it. Call this before creating any server; an explicit
+     * {@code -Dsun.net.httpserver.nodelay} wins.
+     */
+    public static void configureTcpNoDelay(Configuration config) {
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", String.valueOf(config.isTcpNoDelay()));
+        }
     }
 
-    private ExecutorService createExecutor(int poolSize) {
-        ThreadFactory threadFactory = new ThreadFactory() {
+    private ExecutorService createExecutor(ExecutorMode mode, int poolSize) {
+        return switch (mode) {
+            case FIXED -> Executors.newFixedThreadPool(poolSize, platformThreadFactory());
+            case FORKJOIN -> new ForkJoinPool(poolSize, pool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("PancakeServer-fj-" + thread.getPoolIndex());
+                return thread;
+            }, PancakeHttpServer::logUncaught, true);
+            case VIRTUAL -> createVirtualThreadExecutor(poolSize);
+        };
+    }
+
+    private ThreadFactory platformThreadFactory() {
+        return new ThreadFactory() {
             private final AtomicInteger threadCount = new AtomicInteger(1);
 
             @Override
             public Thread newThread(Runnable r) {
                 Thread thread = new Thread(r);
                 thread.setName("PancakeServer-" + threadCount.getAndIncrement());
-                thread.setUncaughtExceptionHandler((t, e) ->
-                        System.err.println("Uncaught exception in thread " + t.getName() + ": " + e.getMessage())
-                );
+                thread.setUncaughtExceptionHandler(PancakeHttpServer::logUncaught);
                 return thread;
             }
         };
+    }
+
+    /**
+     * One virtual thread per exchange. The project still targets Java 17, so the Java 21
+     * API is looked up reflectively; older runtimes fall back to the fixed pool.
+     */
+    private ExecutorService createVirtualThreadExecutor(int poolSize) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, "PancakeServer-v", 1L);
+            builder = builderType.getMethod("uncaughtExceptionHandler", Thread.UncaughtExceptionHandler.class)
+                    .invoke(builder, (Thread.UncaughtExceptionHandler) PancakeHttpServer::logUncaught);
+            ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            Method perTask = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) perTask.invoke(null, factory);
+        } catch (ReflectiveOperationException e) {
+            Logger.warn("Virtual threads require Java 21+ (running %s); using fixed pool of %d threads",
+                    Runtime.version(), poolSize);
+            return Executors.newFixedThreadPool(poolSize, platformThreadFactory());
+        }
+    }
 
-        return Executors.newFixedThreadPool(poolSize, threadFactory);
+    private static void logUncaught(Thread t, Throwable e) {
+        System.err.println("Uncaught exception in thread " + t.getName() + ": " + e.getMessage());
     }
 
     public void start() {
         server.start();
-        System.out.println("Server started on port " + server.getAddress().getPort());
+        System.out.println("Server started on port " + getPort());
+    }
+
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
     }
 
     public void stop() {
@@ -64,6 +133,26 @@ public class PancakeHttpServer {
         } catch (InterruptedException e) {
             executor.shutdownNow();
             Thread.currentThread().interrupt();
+        } finally {
+            timeoutHandler.shutdown();
+        }
+    }
+
+    /**
+     * How exchanges are dispatched, selected with {@code server.executor}.
+     */
+    public enum ExecutorMode {
+        FIXED,
+        FORKJOIN,
+        VIRTUAL;
+
+        public static ExecutorMode fromString(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                Logger.warn("Unknown server.executor '%s', using fixed", value);
+                return FIXED;
+            }
         }
     }
 }
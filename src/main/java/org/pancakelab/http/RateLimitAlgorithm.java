@@ -0,0 +1,34 @@
+package org.pancakelab.http;
+
+/**
+ * How {@link RateLimiter} decides whether a client may make another request.
+ */
+public enum RateLimitAlgorithm {
+    /**
+     * At most {@code maxRequests} per window, counted from the client's first request.
+     * Cheap, but a client can send twice the limit across a window boundary.
+     */
+    FIXED_WINDOW,
+    /**
+     * Weighs the previous window's count by how much of it still overlaps the last
+     * {@code windowMs}, so no window-length interval sees much more than the limit.
+     */
+    SLIDING_WINDOW,
+    /**
+     * Tokens refill at a steady rate up to a burst capacity and each request takes one.
+     */
+    TOKEN_BUCKET;
+
+    /**
+     * Resolves an algorithm by its configuration name: {@code fixed-window},
+     * {@code sliding-window} or {@code token-bucket}.
+     */
+    public static RateLimitAlgorithm fromName(String name) {
+        return switch (name.trim().toLowerCase()) {
+            case "fixed-window", "fixed" -> FIXED_WINDOW;
+            case "sliding-window", "sliding" -> SLIDING_WINDOW;
+            case "token-bucket", "bucket" -> TOKEN_BUCKET;
+            default -> throw new IllegalArgumentException("Unknown rate limit algorithm: " + name);
+        };
+    }
+}
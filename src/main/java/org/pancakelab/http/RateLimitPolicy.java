@@ -0,0 +1,33 @@
+package org.pancakelab.http;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One rate limiting algorithm over a per-client state packed into a single {@code long}.
+ * Decisions read the state and publish the next one with a CAS, so no client is ever
+ * locked and a request allocates nothing. Times are milliseconds since the limiter started.
+ */
+interface RateLimitPolicy {
+
+    /**
+     * State of a client that has not made a request yet.
+     */
+    long initialState(long now);
+
+    /**
+     * Admits a request costing {@code permits} if the client has that much left of its
+     * limit, and records it.
+     */
+    boolean tryAcquire(AtomicLong state, long now, int permits);
+
+    /**
+     * Whether the client's state carries no history any more, so forgetting it changes
+     * no future decision.
+     */
+    boolean isIdle(long state, long now);
+
+    /**
+     * Whether the client's next single-permit request would be rejected.
+     */
+    boolean isThrottled(long state, long now);
+}
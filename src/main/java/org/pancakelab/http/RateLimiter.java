@@ -2,53 +2,189 @@ package org.pancakelab.http;
 
 import org.pancakelab.config.Configuration;
 
-import java.time.Instant;
+import java.util.Iterator;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
 
+/**
+ * Per-client request limit, enforced by a pluggable {@link RateLimitAlgorithm}.
+ * <p>
+ * A known client costs a CAS on its packed {@code long} state between two map lookups;
+ * nothing is allocated. Idle clients are reclaimed by a sweep that runs at most once per window,
+ * and at most {@code maxClients} clients are tracked: a new client arriving at the cap
+ * first sweeps idle clients, then forgets clients that are still within their limit, and
+ * only as a last resort clients that are being throttled. A forgotten client simply
+ * starts afresh.
+ */
 public class RateLimiter {
-    private final int maxRequestsPerWindow;
-    private final int windowSizeMs;
-    private final ConcurrentHashMap<String, RequestWindow> requestWindows = new ConcurrentHashMap<>();
+    private static final RateLimitPolicy UNLIMITED = new RateLimitPolicy() {
+        @Override
+        public long initialState(long now) {
+            return 0;
+        }
+
+        @Override
+        public boolean tryAcquire(AtomicLong state, long now, int permits) {
+            return true;
+        }
+
+        @Override
+        public boolean isIdle(long state, long now) {
+            return true;
+        }
+
+        @Override
+        public boolean isThrottled(long state, long now) {
+            return false;
+        }
+    };
+
+    private final RateLimitPolicy policy;
+    private final long sweepIntervalMs;
+    private final int maxClients;
+    private final LongSupplier clockMs;
+    private final long origin;
+    private final ConcurrentHashMap<String, AtomicLong> clients = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private volatile long nextSweepAt;
 
     public RateLimiter() {
-        Configuration config = Configuration.getInstance();
-        this.maxRequestsPerWindow = config.getRateLimitMaxRequests();
-        this.windowSizeMs = config.getRateLimitWindowMs();
+        this(Configuration.getInstance().getRateLimitMaxRequests());
     }
 
-    public boolean allowRequest(String clientIp) {
-        RequestWindow window = requestWindows.compute(clientIp, (key, existing) -> {
-            Instant now = Instant.now();
-            if (existing == null || existing.isExpired(now)) {
-                return new RequestWindow(now);
-            }
-            existing.incrementCount();
-            return existing;
-        });
+    /**
+     * A limiter of {@code maxRequests} per window using the configured algorithm.
+     */
+    public RateLimiter(int maxRequests) {
+        this(policyFromConfiguration(Configuration.getInstance(), maxRequests),
+                Configuration.getInstance().getRateLimitWindowMs(),
+                Configuration.getInstance().getRateLimitMaxClients(),
+                () -> System.nanoTime() / 1_000_000);
+    }
 
-        return window.getCount() <= maxRequestsPerWindow;
+    /**
+     * A limiter of {@code maxRequests} per {@code windowMs}; the token bucket holds
+     * {@code maxRequests} tokens refilled over one window.
+     */
+    public RateLimiter(RateLimitAlgorithm algorithm, int maxRequests, int windowMs) {
+        this(policy(algorithm, maxRequests, windowMs, maxRequests, maxRequests * 1000.0 / windowMs),
+                windowMs, Configuration.getInstance().getRateLimitMaxClients(), () -> System.nanoTime() / 1_000_000);
     }
 
-    private class RequestWindow {
-        private final Instant startTime;
-        private final AtomicInteger count;
+    RateLimiter(RateLimitPolicy policy, long sweepIntervalMs, int maxClients, LongSupplier clockMs) {
+        if (sweepIntervalMs <= 0 || maxClients <= 0) {
+            throw new IllegalArgumentException("Sweep interval and client cap must be positive");
+        }
+        this.policy = policy;
+        this.sweepIntervalMs = sweepIntervalMs;
+        this.maxClients = maxClients;
+        this.clockMs = clockMs;
+        this.origin = clockMs.getAsLong();
+        this.nextSweepAt = sweepIntervalMs;
+    }
 
-        RequestWindow(Instant startTime) {
-            this.startTime = startTime;
-            this.count = new AtomicInteger(1);
+    /**
+     * Builds the policy for {@code algorithm}. The token bucket holds {@code capacity}
+     * tokens and refills {@code refillPerSecond}; the windowed algorithms use
+     * {@code maxRequests} per {@code windowMs}. A limit of {@link Integer#MAX_VALUE}
+     * admits everything.
+     */
+    static RateLimitPolicy policy(RateLimitAlgorithm algorithm, int maxRequests, long windowMs,
+                                  int capacity, double refillPerSecond) {
+        if (maxRequests == Integer.MAX_VALUE) {
+            return UNLIMITED;
         }
+        return switch (algorithm) {
+            case FIXED_WINDOW -> new FixedWindowPolicy(maxRequests, windowMs);
+            case SLIDING_WINDOW -> new SlidingWindowPolicy(maxRequests, windowMs);
+            case TOKEN_BUCKET -> new TokenBucketPolicy(capacity, refillPerSecond);
+        };
+    }
+
+    private static RateLimitPolicy policyFromConfiguration(Configuration config, int maxRequests) {
+        int windowMs = config.getRateLimitWindowMs();
+        int capacity = config.getRateLimitBucketCapacity();
+        double refillPerSecond = config.getRateLimitBucketRefillPerSecond();
+        return policy(RateLimitAlgorithm.fromName(config.getRateLimitAlgorithm()), maxRequests, windowMs,
+                capacity > 0 ? capacity : maxRequests,
+                refillPerSecond > 0 ? refillPerSecond : maxRequests * 1000.0 / windowMs);
+    }
 
-        boolean isExpired(Instant now) {
-            return now.toEpochMilli() - startTime.toEpochMilli() >= windowSizeMs;
+    public boolean allowRequest(String clientIp) {
+        return allowRequest(clientIp, 1);
+    }
+
+    /**
+     * Admits a request that costs {@code permits} of the client's limit. A cost above the
+     * limit is never admitted.
+     */
+    public boolean allowRequest(String clientIp, int permits) {
+        long now = clockMs.getAsLong() - origin;
+        if (now >= nextSweepAt) {
+            sweep(now, Integer.MAX_VALUE);
+        }
+        while (true) {
+            AtomicLong state = clients.get(clientIp);
+            if (state == null) {
+                state = admit(clientIp, now);
+            }
+            boolean allowed = policy.tryAcquire(state, now, permits);
+            // A concurrent sweep may have dropped the state we just updated; count again on the live one
+            if (clients.get(clientIp) == state) {
+                return allowed;
+            }
+        }
+    }
+
+    /**
+     * Number of clients currently tracked.
+     */
+    int trackedClients() {
+        return clients.size();
+    }
+
+    private AtomicLong admit(String clientIp, long now) {
+        if (clients.size() >= maxClients) {
+            sweep(now, maxClients - maxClients / 4);
         }
+        AtomicLong created = new AtomicLong(policy.initialState(now));
+        AtomicLong existing = clients.putIfAbsent(clientIp, created);
+        return existing != null ? existing : created;
+    }
 
-        void incrementCount() {
-            count.incrementAndGet();
+    /**
+     * Drops idle clients and, when more than {@code target} remain, evicts further
+     * clients until the map is down to {@code target}. Only one thread sweeps at a time;
+     * the others carry on, so the cap can be overshot by the number of threads admitting
+     * new clients concurrently.
+     */
+    private void sweep(long now, int target) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            nextSweepAt = now + sweepIntervalMs;
+            clients.values().removeIf(state -> policy.isIdle(state.get(), now));
+            if (clients.size() > target) {
+                evict(now, target, false);
+            }
+            if (clients.size() > target) {
+                evict(now, target, true);
+            }
+        } finally {
+            sweeping.set(false);
         }
+    }
 
-        int getCount() {
-            return count.get();
+    private void evict(long now, int target, boolean includeThrottled) {
+        Iterator<AtomicLong> states = clients.values().iterator();
+        while (states.hasNext() && clients.size() > target) {
+            AtomicLong state = states.next();
+            if (includeThrottled || !policy.isThrottled(state.get(), now)) {
+                states.remove();
+            }
         }
     }
 }
@@ -0,0 +1,51 @@
+package org.pancakelab.http;
+
+import org.pancakelab.metrics.Counter;
+import org.pancakelab.metrics.LatencyHistogram;
+import org.pancakelab.metrics.MetricsRegistry;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Request count by status, latency and rate-limit rejections of one route. The metrics
+ * are resolved once per route and per status code, so recording a request allocates
+ * nothing.
+ */
+final class RouteMetrics {
+    static final String REQUESTS = "pancakelab_http_requests_total";
+    static final String DURATION = "pancakelab_http_request_duration_seconds";
+    static final String RATE_LIMITED = "pancakelab_http_rate_limited_total";
+
+    private final MetricsRegistry registry;
+    private final String route;
+    private final LatencyHistogram latency;
+    private final Counter rateLimited;
+    private final AtomicReferenceArray<Counter> byStatus = new AtomicReferenceArray<>(600);
+
+    RouteMetrics(MetricsRegistry registry, String route) {
+        this.registry = registry;
+        this.route = route;
+        this.latency = registry.histogram(DURATION, "Time spent handling requests, by route.", "route", route);
+        this.rateLimited = registry.counter(RATE_LIMITED, "Requests rejected with 429, by route.", "route", route);
+    }
+
+    /**
+     * Records a finished request. A status outside 100-599 means no response was started
+     * because the handler failed, which the server answers with 500.
+     */
+    void record(int status, long nanos) {
+        latency.record(nanos);
+        int code = status >= 100 && status < 600 ? status : 500;
+        Counter counter = byStatus.get(code);
+        if (counter == null) {
+            counter = registry.counter(REQUESTS, "Requests handled, by route and status.",
+                    "route", route, "status", Integer.toString(code));
+            byStatus.set(code, counter);
+        }
+        counter.increment();
+    }
+
+    void rateLimited() {
+        rateLimited.increment();
+    }
+}
@@ -3,62 +3,71 @@ package org.pancakelab.http;
 import com.sun.net.httpserver.HttpExchange;
 
 import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
 /**
- * Enhanced router for handling HTTP requests with named path parameters
+ * Enhanced router for handling HTTP requests with named path parameters.
+ * <p>
+ * Routes are compiled into a segment trie per HTTP method: literal segments are
+ * matched before {@code {param}} wildcards, so a request is resolved in a single
+ * pass over the path without regular expressions.
  */
 public class Router {
-    private final List<Route> routes = new ArrayList<>();
+    private final Map<String, Node> roots = new HashMap<>();
 
     public void addRoute(String method, String pattern, RouteHandler handler) {
-        routes.add(new Route(method, compilePattern(pattern), handler, extractParamNames(pattern)));
+        Node root = roots.computeIfAbsent(method, m -> new Node());
+        Node node = root;
+        List<String> paramNames = new ArrayList<>();
+
+        for (String segment : splitPattern(pattern)) {
+            if (segment.startsWith("{") && segment.endsWith("}")) {
+                paramNames.add(segment.substring(1, segment.length() - 1));
+                node = node.paramChild();
+            } else {
+                node = node.literalChild(segment);
+            }
+        }
+
+        if (node.route == null) {
+            node.route = new Route(handler, paramNames.toArray(new String[0]));
+            root.maxParams = Math.max(root.maxParams, paramNames.size());
+        }
     }
 
     public boolean handleRequest(HttpExchange exchange) throws IOException {
         String method = exchange.getRequestMethod();
         String path = exchange.getRequestURI().getPath();
 
-        for (Route route : routes) {
-            if (route.matches(method, path)) {
-                Matcher matcher = route.pattern.matcher(path);
-                if (matcher.matches()) {
-                    Map<String, String> pathParams = extractPathParams(matcher, route.paramNames);
-                    route.handler.handle(exchange, pathParams);
-                    return true;
-                }
-            }
+        Node root = roots.get(method);
+        if (root == null || path == null || path.isEmpty() || path.charAt(0) != '/') {
+            return false;
         }
-        return false;
-    }
-
-    private Pattern compilePattern(String pattern) {
-        // Convert named parameters like {orderId} to regex groups
-        String regexPattern = pattern.replaceAll("\\{([^}]+)\\}", "([^/]+)");
-        return Pattern.compile(regexPattern);
-    }
 
-    private List<String> extractParamNames(String pattern) {
-        List<String> paramNames = new ArrayList<>();
-        Pattern paramPattern = Pattern.compile("\\{([^}]+)\\}");
-        Matcher matcher = paramPattern.matcher(pattern);
-        while (matcher.find()) {
-            paramNames.add(matcher.group(1));
+        String[] values = new String[root.maxParams];
+        Route route = root.match(path, 1, values, 0);
+        if (route == null) {
+            return false;
         }
-        return paramNames;
+
+        route.handler.handle(exchange, new PathParams(route.paramNames, values));
+        return true;
     }
 
-    private Map<String, String> extractPathParams(Matcher matcher, List<String> paramNames) {
-        Map<String, String> params = new HashMap<>();
-        for (int i = 0; i < paramNames.size() && i < matcher.groupCount(); i++) {
-            params.put(paramNames.get(i), matcher.group(i + 1));
+    private static List<String> splitPattern(String pattern) {
+        if (pattern.isEmpty() || pattern.charAt(0) != '/') {
+            throw new IllegalArgumentException("Route pattern must start with '/': " + pattern);
         }
-        return params;
+        return Arrays.asList(pattern.substring(1).split("/", -1));
     }
 
     @FunctionalInterface
@@ -67,20 +76,184 @@ public class Router {
     }
 
     private static class Route {
-        final String method;
-        final Pattern pattern;
         final RouteHandler handler;
-        final List<String> paramNames;
+        final String[] paramNames;
 
-        Route(String method, Pattern pattern, RouteHandler handler, List<String> paramNames) {
-            this.method = method;
-            this.pattern = pattern;
+        Route(RouteHandler handler, String[] paramNames) {
             this.handler = handler;
             this.paramNames = paramNames;
         }
+    }
+
+    /**
+     * Trie node for a single path segment. Literal children are kept in a sorted array
+     * and compared in place against the request path, so matching allocates nothing
+     * except the parameter values themselves.
+     */
+    private static class Node {
+        private String[] literals = new String[0];
+        private Node[] literalNodes = new Node[0];
+        private Node paramNode;
+        private Route route;
+        private int maxParams;
+
+        Node literalChild(String segment) {
+            int index = Arrays.binarySearch(literals, segment);
+            if (index >= 0) {
+                return literalNodes[index];
+            }
+            int insertAt = -index - 1;
+            Node child = new Node();
+            literals = insert(literals, insertAt, segment, new String[literals.length + 1]);
+            literalNodes = insert(literalNodes, insertAt, child, new Node[literalNodes.length + 1]);
+            return child;
+        }
+
+        private static <T> T[] insert(T[] source, int index, T value, T[] target) {
+            System.arraycopy(source, 0, target, 0, index);
+            target[index] = value;
+            System.arraycopy(source, index, target, index + 1, source.length - index);
+            return target;
+        }
+
+        Node paramChild() {
+            if (paramNode == null) {
+                paramNode = new Node();
+            }
+            return paramNode;
+        }
 
-        boolean matches(String requestMethod, String path) {
-            return method.equals(requestMethod) && pattern.matcher(path).matches();
+        /**
+         * Matches the segment starting at {@code start} and everything after it.
+         * Returns the route of the terminal node, or {@code null} if nothing matches.
+         */
+        Route match(String path, int start, String[] values, int depth) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = path.length();
+            }
+            int length = end - start;
+            boolean last = end == path.length();
+
+            int literal = findLiteral(path, start, end);
+            if (literal >= 0) {
+                Route route = literalNodes[literal].resolve(path, end, last, values, depth);
+                if (route != null) {
+                    return route;
+                }
+            }
+
+            // Parameters never match an empty segment, mirroring the former "[^/]+" groups
+            if (paramNode != null && length > 0) {
+                Route route = paramNode.resolve(path, end, last, values, depth + 1);
+                if (route != null) {
+                    values[depth] = path.substring(start, end);
+                    return route;
+                }
+            }
+            return null;
+        }
+
+        private Route resolve(String path, int end, boolean last, String[] values, int depth) {
+            return last ? route : match(path, end + 1, values, depth);
+        }
+
+        /**
+         * Binary search of the sorted literals against {@code path[start, end)} without
+         * extracting the segment as a new string.
+         */
+        private int findLiteral(String path, int start, int end) {
+            int low = 0;
+            int high = literals.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int cmp = compareSegment(literals[mid], path, start, end);
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -1;
+        }
+
+        private static int compareSegment(String literal, String path, int start, int end) {
+            int length = end - start;
+            int common = Math.min(literal.length(), length);
+            for (int i = 0; i < common; i++) {
+                int diff = literal.charAt(i) - path.charAt(start + i);
+                if (diff != 0) {
+                    return diff;
+                }
+            }
+            return literal.length() - length;
+        }
+    }
+
+    /**
+     * Read-only path parameter view backed by the route's name array and the values
+     * captured while matching.
+     */
+    private static final class PathParams extends AbstractMap<String, String> {
+        private final String[] names;
+        private final String[] values;
+
+        PathParams(String[] names, String[] values) {
+            this.names = names;
+            this.values = values;
+        }
+
+        @Override
+        public String get(Object key) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equals(key)) {
+                    return values[i];
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public int size() {
+            return names.length;
+        }
+
+        @Override
+        public Set<Entry<String, String>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, String>> iterator() {
+                    return new Iterator<>() {
+                        private int index;
+
+                        @Override
+                        public boolean hasNext() {
+                            return index < names.length;
+                        }
+
+                        @Override
+                        public Entry<String, String> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            int i = index++;
+                            return new SimpleImmutableEntry<>(names[i], values[i]);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return names.length;
+                }
+            };
         }
     }
 }
@@ -0,0 +1,90 @@
+package org.pancakelab.http;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sliding-window counter over windows aligned to multiples of {@code windowMs}. A request
+ * is admitted while {@code previous * (windowMs - elapsed) / windowMs + current} stays
+ * below the limit, {@code elapsed} being the time spent in the current window.
+ * <p>
+ * State: window index in the high 32 bits (compared with wrap-around), then the previous
+ * and current window counts in 16 bits each.
+ */
+final class SlidingWindowPolicy implements RateLimitPolicy {
+    private static final long COUNT_MASK = 0xFFFF;
+
+    private final int maxRequests;
+    private final long windowMs;
+
+    SlidingWindowPolicy(int maxRequests, long windowMs) {
+        if (maxRequests <= 0 || maxRequests >= COUNT_MASK || windowMs <= 0) {
+            throw new IllegalArgumentException("Rate limit must be between 1 and 65534 and window positive");
+        }
+        this.maxRequests = maxRequests;
+        this.windowMs = windowMs;
+    }
+
+    @Override
+    public long initialState(long now) {
+        return (now / windowMs) << 32;
+    }
+
+    @Override
+    public boolean tryAcquire(AtomicLong state, long now, int permits) {
+        long index = now / windowMs;
+        while (true) {
+            long current = state.get();
+            long rolled = roll(current, index);
+            long previous = (rolled >>> 16) & COUNT_MASK;
+            long count = rolled & COUNT_MASK;
+            if (previous * remaining(current, now, index) + (count + permits) * windowMs > maxRequests * windowMs) {
+                return false;
+            }
+            if (state.compareAndSet(current, rolled + permits)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public boolean isIdle(long state, long now) {
+        return windowsBehind(state, now / windowMs) >= 2;
+    }
+
+    @Override
+    public boolean isThrottled(long state, long now) {
+        long index = now / windowMs;
+        long rolled = roll(state, index);
+        long previous = (rolled >>> 16) & COUNT_MASK;
+        long count = rolled & COUNT_MASK;
+        return previous * remaining(state, now, index) + (count + 1) * windowMs > maxRequests * windowMs;
+    }
+
+    /**
+     * Time left in the current window, which weighs the previous count. A {@code now} from
+     * before the state's window, read by a caller that lost a race with the roll, counts as
+     * the start of the state's window.
+     */
+    private long remaining(long state, long now, long index) {
+        return windowsBehind(state, index) < 0 ? windowMs : windowMs - (now - index * windowMs);
+    }
+
+    /**
+     * The state as seen from window {@code index}: unchanged in the same window, the
+     * current count shifted to previous in the next one, and empty after that. A state
+     * already ahead of {@code index} is kept as the current window.
+     */
+    private static long roll(long state, long index) {
+        long behind = windowsBehind(state, index);
+        if (behind <= 0) {
+            return state;
+        }
+        long previous = behind == 1 ? state & COUNT_MASK : 0;
+        return (index << 32) | (previous << 16);
+    }
+
+    // Signed so a state ahead of a stale index comes out negative rather than ~2^32 behind
+    private static long windowsBehind(long state, long index) {
+        return (int) index - (int) (state >>> 32);
+    }
+}
@@ -1,50 +1,308 @@
 package org.pancakelab.http;
 
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpContext;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpPrincipal;
+import org.pancakelab.metrics.Counter;
+import org.pancakelab.util.Logger;
 
 import java.io.IOException;
-import java.util.concurrent.*;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Enforces the request timeout without a second thread per request.
+ * <p>
+ * The delegate runs on the server thread that accepted the exchange. A single shared
+ * scheduler fires at the deadline: if no response has been started by then it interrupts
+ * the worker, makes any later attempt by the handler to respond fail and hands the 408 to
+ * a separate responder pool, so a client that is slow to take its 408 never delays the
+ * other deadlines.
+ */
 public class TimeoutHandler implements HttpHandler {
     private final HttpHandler delegate;
     private final int timeoutMs;
-    private final ExecutorService timeoutExecutor;
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final ExecutorService responder;
+    private final Counter timeouts;
 
     public TimeoutHandler(HttpHandler delegate, int timeoutMs) {
+        this(delegate, timeoutMs, new Counter());
+    }
+
+    /**
+     * A handler counting every request answered 408 in {@code timeouts}.
+     */
+    public TimeoutHandler(HttpHandler delegate, int timeoutMs, Counter timeouts) {
         this.delegate = delegate;
         this.timeoutMs = timeoutMs;
-        this.timeoutExecutor = Executors.newCachedThreadPool();
+        this.timeouts = timeouts;
+        this.scheduler = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "PancakeTimeout");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Most deadlines are cancelled long before they fire; don't keep them queued
+        this.scheduler.setRemoveOnCancelPolicy(true);
+        // Timeouts are rare, so responder threads come and go with them
+        this.responder = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "PancakeTimeoutResponder");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     @Override
     public void handle(HttpExchange exchange) throws IOException {
-        Future<?> task = timeoutExecutor.submit(() -> {
-            try {
-                delegate.handle(exchange);
-            } catch (IOException e) {
-                throw new CompletionException(e);
-            }
-        });
+        Deadline deadline = new Deadline(exchange, Thread.currentThread(), responder);
+        ScheduledFuture<?> timer = scheduler.schedule(deadline, timeoutMs, TimeUnit.MILLISECONDS);
 
         try {
-            task.get(timeoutMs, TimeUnit.MILLISECONDS);
-        } catch (TimeoutException e) {
-            task.cancel(true);
-            sendError(exchange, 408, "Request timeout");
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            sendError(exchange, 500, "Request processing interrupted");
-        } catch (ExecutionException e) {
-            throw new IOException("Request processing failed", e.getCause());
+            delegate.handle(new DeadlineExchange(exchange, deadline));
+        } catch (IOException | RuntimeException e) {
+            if (!deadline.isTimedOut()) {
+                throw e;
+            }
+            // The 408 has already been sent; whatever the handler hit afterwards is moot
+        } finally {
+            timer.cancel(false);
+            if (deadline.finish()) {
+                timeouts.increment();
+                // Clear the interrupt raised by the deadline so it can't leak into the next request
+                Thread.interrupted();
+            }
         }
     }
 
-    private void sendError(HttpExchange exchange, int statusCode, String message) throws IOException {
+    public void shutdown() {
+        scheduler.shutdownNow();
+        // Let 408s already handed over finish; their workers are waiting for them
+        responder.shutdown();
+    }
+
+    private static void sendError(HttpExchange exchange, int statusCode, String message) throws IOException {
         byte[] response = ("{\"error\":\"" + message + "\"}").getBytes();
         exchange.getResponseHeaders().set("Content-Type", "application/json");
         exchange.sendResponseHeaders(statusCode, response.length);
         exchange.getResponseBody().write(response);
         exchange.close();
     }
+
+    /**
+     * Arbitrates who owns the response: the handler, by starting it before the deadline,
+     * or the timer, by firing first. Uses a {@link ReentrantLock} rather than a monitor so
+     * a virtual worker waiting for the 408 does not pin its carrier thread.
+     */
+    private static class Deadline implements Runnable {
+        private static final int RUNNING = 0;
+        private static final int RESPONDING = 1;
+        private static final int TIMED_OUT = 2;
+        private static final int FINISHED = 3;
+
+        private final HttpExchange exchange;
+        private final Thread worker;
+        private final ExecutorService responder;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition sent = lock.newCondition();
+        private int state = RUNNING;
+        private boolean timeoutSent;
+
+        Deadline(HttpExchange exchange, Thread worker, ExecutorService responder) {
+            this.exchange = exchange;
+            this.worker = worker;
+            this.responder = responder;
+        }
+
+        @Override
+        public void run() {
+            lock.lock();
+            try {
+                if (state != RUNNING) {
+                    return;
+                }
+                state = TIMED_OUT;
+                worker.interrupt();
+            } finally {
+                lock.unlock();
+            }
+            try {
+                responder.execute(this::sendTimeout);
+            } catch (RejectedExecutionException e) {
+                // Shutting down; the worker is waiting in finish() for the 408 either way
+                sendTimeout();
+            }
+        }
+
+        private void sendTimeout() {
+            Logger.warn("Request timed out after deadline: %s %s",
+                    exchange.getRequestMethod(), exchange.getRequestURI().getPath());
+            try {
+                sendError(exchange, 408, "Request timeout");
+            } catch (IOException e) {
+                Logger.error("Failed to send timeout response: %s", e.getMessage());
+            } finally {
+                lock.lock();
+                try {
+                    timeoutSent = true;
+                    sent.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        boolean claimResponse() {
+            lock.lock();
+            try {
+                if (state == RUNNING) {
+                    state = RESPONDING;
+                }
+                return state == RESPONDING;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean isTimedOut() {
+            lock.lock();
+            try {
+                return state == TIMED_OUT;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Marks the request as done so a late timer is a no-op. If the deadline already
+         * fired, waits for the 408 to be written so the exchange is settled on return.
+         *
+         * @return true if the deadline fired and interrupted the worker
+         */
+        boolean finish() {
+            lock.lock();
+            try {
+                boolean timedOut = state == TIMED_OUT;
+                state = FINISHED;
+                while (timedOut && !timeoutSent) {
+                    sent.awaitUninterruptibly();
+                }
+                return timedOut;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Delegating exchange that refuses to start a response once the deadline has fired.
+     */
+    private static class DeadlineExchange extends HttpExchange {
+        private final HttpExchange exchange;
+        private final Deadline deadline;
+
+        DeadlineExchange(HttpExchange exchange, Deadline deadline) {
+            this.exchange = exchange;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void sendResponseHeaders(int rCode, long responseLength) throws IOException {
+            if (!deadline.claimResponse()) {
+                throw new IOException("Request timed out before the response was sent");
+            }
+            exchange.sendResponseHeaders(rCode, responseLength);
+        }
+
+        @Override
+        public Headers getRequestHeaders() {
+            return exchange.getRequestHeaders();
+        }
+
+        @Override
+        public Headers getResponseHeaders() {
+            return exchange.getResponseHeaders();
+        }
+
+        @Override
+        public URI getRequestURI() {
+            return exchange.getRequestURI();
+        }
+
+        @Override
+        public String getRequestMethod() {
+            return exchange.getRequestMethod();
+        }
+
+        @Override
+        public HttpContext getHttpContext() {
+            return exchange.getHttpContext();
+        }
+
+        @Override
+        public void close() {
+            exchange.close();
+        }
+
+        @Override
+        public InputStream getRequestBody() {
+            return exchange.getRequestBody();
+        }
+
+        @Override
+        public OutputStream getResponseBody() {
+            return exchange.getResponseBody();
+        }
+
+        @Override
+        public InetSocketAddress getRemoteAddress() {
+            return exchange.getRemoteAddress();
+        }
+
+        @Override
+        public int getResponseCode() {
+            return exchange.getResponseCode();
+        }
+
+        @Override
+        public InetSocketAddress getLocalAddress() {
+            return exchange.getLocalAddress();
+        }
+
+        @Override
+        public String getProtocol() {
+            return exchange.getProtocol();
+        }
+
+        @Override
+        public Object getAttribute(String name) {
+            return exchange.getAttribute(name);
+        }
+
+        @Override
+        public void setAttribute(String name, Object value) {
+            exchange.setAttribute(name, value);
+        }
+
+        @Override
+        public void setStreams(InputStream i, OutputStream o) {
+            exchange.setStreams(i, o);
+        }
+
+        @Override
+        public HttpPrincipal getPrincipal() {
+            return exchange.getPrincipal();
+        }
+    }
 }
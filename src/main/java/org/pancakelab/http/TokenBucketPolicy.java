@@ -0,0 +1,53 @@
+package org.pancakelab.http;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket in its generic cell rate form: the state is the theoretical arrival time,
+ * in microseconds, at which the bucket would be full again. Each permit pushes it one
+ * refill interval further, and a request is admitted while that leaves it within
+ * {@code capacity} intervals of now. This matches a bucket of {@code capacity} tokens
+ * refilled at {@code refillPerSecond} without storing a token count.
+ */
+final class TokenBucketPolicy implements RateLimitPolicy {
+    private final long intervalMicros;
+    private final long toleranceMicros;
+
+    TokenBucketPolicy(int capacity, double refillPerSecond) {
+        if (capacity <= 0 || !(refillPerSecond > 0)) {
+            throw new IllegalArgumentException("Bucket capacity and refill rate must be positive");
+        }
+        this.intervalMicros = Math.max(1, Math.round(1_000_000 / refillPerSecond));
+        this.toleranceMicros = (capacity - 1) * intervalMicros;
+    }
+
+    @Override
+    public long initialState(long now) {
+        return now * 1000;
+    }
+
+    @Override
+    public boolean tryAcquire(AtomicLong state, long now, int permits) {
+        long nowMicros = now * 1000;
+        while (true) {
+            long arrival = state.get();
+            long next = Math.max(arrival, nowMicros) + permits * intervalMicros;
+            if (next - nowMicros > toleranceMicros + intervalMicros) {
+                return false;
+            }
+            if (state.compareAndSet(arrival, next)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public boolean isIdle(long state, long now) {
+        return state <= now * 1000;
+    }
+
+    @Override
+    public boolean isThrottled(long state, long now) {
+        return state - now * 1000 > toleranceMicros;
+    }
+}
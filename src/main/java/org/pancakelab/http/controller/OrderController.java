@@ -8,15 +8,17 @@ import org.pancakelab.http.dto.OrderResponse;
 import org.pancakelab.http.validation.RequestValidator;
 import org.pancakelab.model.Order;
 import org.pancakelab.model.OrderState;
+import org.pancakelab.service.OrderPage;
 import org.pancakelab.service.OrderService;
 import org.pancakelab.util.Logger;
 
 import java.io.IOException;
-import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
 public class OrderController {
+    public static final int MAX_PAGE_SIZE = 1000;
+
     private final OrderService orderService;
 
     public OrderController(OrderService orderService) {
@@ -40,25 +42,41 @@ public class OrderController {
         }
     }
 
+    /**
+     * Lists orders in id order. {@code limit} caps the page at {@link #MAX_PAGE_SIZE};
+     * when more orders follow, the {@code X-Next-Cursor} header carries the value to pass
+     * as {@code cursor} for the next page. Without {@code limit} every order is returned.
+     */
     public void getAllOrders(HttpExchange exchange, Map<String, String> pathParams) throws IOException {
+        OrderState state;
+        UUID cursor;
+        int limit;
         try {
             String stateParam = HttpUtils.getQueryParam(exchange, "state");
-            List<Order> orders;
-
-            if (stateParam != null) {
-                OrderState state = OrderState.valueOf(stateParam.toUpperCase());
-                orders = orderService.getOrdersByState(state);
-            } else {
-                orders = orderService.getAllOrders();
-            }
-
-            List<OrderResponse> responses = orders.stream()
-                    .map(OrderResponse::fromOrder)
-                    .toList();
-
-            HttpUtils.sendJson(exchange, 200, responses);
+            state = stateParam != null ? OrderState.valueOf(stateParam.toUpperCase()) : null;
         } catch (IllegalArgumentException e) {
             HttpUtils.sendError(exchange, 400, "Invalid state parameter");
+            return;
+        }
+        try {
+            String cursorParam = HttpUtils.getQueryParam(exchange, "cursor");
+            cursor = cursorParam != null ? UUID.fromString(cursorParam) : null;
+            String limitParam = HttpUtils.getQueryParam(exchange, "limit");
+            limit = limitParam != null ? Math.min(Integer.parseInt(limitParam), MAX_PAGE_SIZE) : Integer.MAX_VALUE;
+            if (limit <= 0) {
+                throw new IllegalArgumentException("limit must be positive");
+            }
+        } catch (IllegalArgumentException e) {
+            HttpUtils.sendError(exchange, 400, "Invalid limit or cursor parameter");
+            return;
+        }
+
+        try {
+            OrderPage page = orderService.getOrders(state, cursor, limit);
+            if (page.nextCursor() != null) {
+                exchange.getResponseHeaders().set("X-Next-Cursor", page.nextCursor().toString());
+            }
+            HttpUtils.sendJsonArray(exchange, 200, page.orders(), OrderResponse::fromOrder);
         } catch (Exception e) {
             Logger.error("Failed to get orders: %s", e.getMessage());
             HttpUtils.sendError(exchange, 500, "Internal server error");
@@ -45,12 +45,7 @@ public class PancakeController {
         try {
             UUID orderId = UUID.fromString(pathParams.get("orderId"));
             List<Pancake> pancakes = pancakeService.getPancakesByOrder(orderId);
-
-            List<PancakeResponse> responses = pancakes.stream()
-                    .map(PancakeResponse::fromPancake)
-                    .toList();
-
-            HttpUtils.sendJson(exchange, 200, responses);
+            HttpUtils.sendJsonArray(exchange, 200, pancakes, PancakeResponse::fromPancake);
         } catch (Exception e) {
             Logger.error("Failed to get pancakes: %s", e.getMessage());
             HttpUtils.sendError(exchange, 500, "Internal server error");
@@ -0,0 +1,91 @@
+package org.pancakelab.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with log-linear buckets in the style of HdrHistogram:
+ * every power of two is split into 32 equal sub-buckets, so any recorded value is known
+ * to within about 3% from 1 ns up to the full range of a {@code long}. Recording is one
+ * bucket index computation and one atomic increment; percentiles are computed on read.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray((65 - SUB_BUCKET_BITS) * SUB_BUCKETS);
+    private final LongAdder sumNanos = new LongAdder();
+
+    public void record(long nanos) {
+        long value = Math.max(1, nanos);
+        buckets.getAndIncrement(index(value));
+        sumNanos.add(value);
+    }
+
+    public long sumNanos() {
+        return sumNanos.sum();
+    }
+
+    public Snapshot snapshot() {
+        long[] counts = new long[buckets.length()];
+        long total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        return new Snapshot(counts, total);
+    }
+
+    /**
+     * Bucket counts copied at one point in time, so several percentiles read from it
+     * agree with each other and with {@link #count()}.
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+
+        private Snapshot(long[] counts, long count) {
+            this.counts = counts;
+            this.count = count;
+        }
+
+        public long count() {
+            return count;
+        }
+
+        /**
+         * Upper bound in nanoseconds of the bucket holding the {@code p} quantile
+         * ({@code 0 < p <= 1}), or 0 when nothing was recorded.
+         */
+        public long percentile(double p) {
+            long target = Math.max(1, (long) Math.ceil(count * p));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= target) {
+                    return upperBound(i);
+                }
+            }
+            return 0;
+        }
+    }
+
+    static int index(long value) {
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent < SUB_BUCKET_BITS) {
+            return (int) value;
+        }
+        int sub = (int) ((value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        long lower = (1L << exponent) | ((long) (index % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS));
+        return lower + width - 1;
+    }
+}
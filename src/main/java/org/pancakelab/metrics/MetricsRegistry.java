@@ -0,0 +1,140 @@
+package org.pancakelab.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Named counters and latency histograms, exported in the Prometheus text format.
+ * <p>
+ * A metric is identified by its name and label pairs. Registering is a map lookup, so
+ * callers resolve their metrics once and keep the returned {@link Counter} or
+ * {@link LatencyHistogram}; recording then never touches the registry.
+ */
+public class MetricsRegistry {
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final Map<String, Family<?>> families = new ConcurrentSkipListMap<>();
+
+    /**
+     * The counter {@code name} with the given label pairs ({@code key, value, ...}),
+     * created on first use.
+     */
+    public Counter counter(String name, String help, String... labels) {
+        return family(name, help, "counter", Counter.class).series(labels, Counter::new);
+    }
+
+    /**
+     * Exports a counter whose total is kept elsewhere; {@code value} is read on every scrape
+     * and must never decrease. The first registration of a series wins.
+     */
+    public void counterFunction(String name, String help, LongSupplier value, String... labels) {
+        family(name, help, "counter", LongSupplier.class).series(labels, () -> value);
+    }
+
+    /**
+     * The latency histogram {@code name} with the given label pairs, created on first use.
+     * It is exported as a summary in seconds with p50, p90, p99 and p99.9.
+     */
+    public LatencyHistogram histogram(String name, String help, String... labels) {
+        return family(name, help, "summary", LatencyHistogram.class).series(labels, LatencyHistogram::new);
+    }
+
+    /**
+     * All metrics in the Prometheus text exposition format, families sorted by name.
+     */
+    public String scrape() {
+        StringBuilder out = new StringBuilder(4096);
+        for (Family<?> family : families.values()) {
+            out.append("# HELP ").append(family.name).append(' ').append(family.help).append('\n');
+            out.append("# TYPE ").append(family.name).append(' ').append(family.type).append('\n');
+            for (Map.Entry<String, ?> series : family.series.entrySet()) {
+                if (series.getValue() instanceof Counter counter) {
+                    sample(out, family.name, series.getKey(), null, Long.toString(counter.get()));
+                } else if (series.getValue() instanceof LongSupplier value) {
+                    sample(out, family.name, series.getKey(), null, Long.toString(value.getAsLong()));
+                } else {
+                    writeSummary(out, family.name, series.getKey(), (LatencyHistogram) series.getValue());
+                }
+            }
+        }
+        return out.toString();
+    }
+
+    private static void writeSummary(StringBuilder out, String name, String labels, LatencyHistogram histogram) {
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        for (double quantile : QUANTILES) {
+            sample(out, name, labels, "quantile=\"" + quantile + '"', seconds(snapshot.percentile(quantile)));
+        }
+        sample(out, name + "_sum", labels, null, seconds(histogram.sumNanos()));
+        sample(out, name + "_count", labels, null, Long.toString(snapshot.count()));
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, String extraLabel, String value) {
+        out.append(name);
+        if (!labels.isEmpty() || extraLabel != null) {
+            out.append('{').append(labels);
+            if (extraLabel != null) {
+                out.append(labels.isEmpty() ? "" : ",").append(extraLabel);
+            }
+            out.append('}');
+        }
+        out.append(' ').append(value).append('\n');
+    }
+
+    private static String seconds(long nanos) {
+        return Double.toString(nanos / 1e9);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <M> Family<M> family(String name, String help, String type, Class<M> metricType) {
+        Family<?> family = families.computeIfAbsent(name, n -> new Family<>(n, help, type));
+        if (!family.type.equals(type)) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as a " + family.type);
+        }
+        return (Family<M>) family;
+    }
+
+    private static String labelText(String[] labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be key/value pairs");
+        }
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                text.append(',');
+            }
+            text.append(labels[i]).append("=\"");
+            String value = labels[i + 1];
+            for (int c = 0; c < value.length(); c++) {
+                char ch = value.charAt(c);
+                switch (ch) {
+                    case '\\' -> text.append("\\\\");
+                    case '"' -> text.append("\\\"");
+                    case '\n' -> text.append("\\n");
+                    default -> text.append(ch);
+                }
+            }
+            text.append('"');
+        }
+        return text.toString();
+    }
+
+    private static final class Family<M> {
+        final String name;
+        final String help;
+        final String type;
+        final Map<String, M> series = new ConcurrentSkipListMap<>();
+
+        Family(String name, String help, String type) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+        }
+
+        M series(String[] labels, Supplier<M> factory) {
+            return series.computeIfAbsent(labelText(labels), key -> factory.get());
+        }
+    }
+}
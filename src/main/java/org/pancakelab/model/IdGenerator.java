@@ -0,0 +1,34 @@
+package org.pancakelab.model;
+
+import java.util.UUID;
+
+/**
+ * Source of ids for orders, pancakes and ingredients. Every implementation emits standard
+ * RFC 9562 UUIDs, so clients see the usual string form whichever one is in use.
+ */
+@FunctionalInterface
+public interface IdGenerator {
+
+    /**
+     * Version 4 ids from the JDK's shared {@code SecureRandom}.
+     */
+    IdGenerator RANDOM = UUID::randomUUID;
+
+    /**
+     * Version 7 ids: time-ordered and generated without shared state.
+     */
+    IdGenerator TIME_ORDERED = new TimeOrderedIdGenerator();
+
+    UUID nextId();
+
+    /**
+     * Resolves a generator by its configuration name: {@code uuidv7} or {@code random}.
+     */
+    static IdGenerator fromName(String name) {
+        return switch (name.trim().toLowerCase()) {
+            case "uuidv7", "v7", "time" -> TIME_ORDERED;
+            case "random", "uuidv4", "v4" -> RANDOM;
+            default -> throw new IllegalArgumentException("Unknown id generator: " + name);
+        };
+    }
+}
@@ -0,0 +1,22 @@
+package org.pancakelab.model;
+
+import java.util.UUID;
+
+/**
+ * The {@link IdGenerator} used when orders, pancakes and ingredients are created.
+ * Defaults to {@link IdGenerator#TIME_ORDERED}.
+ */
+public final class Ids {
+    private static volatile IdGenerator generator = IdGenerator.TIME_ORDERED;
+
+    private Ids() {
+    }
+
+    public static UUID next() {
+        return generator.nextId();
+    }
+
+    public static void use(IdGenerator idGenerator) {
+        generator = idGenerator;
+    }
+}
@@ -2,16 +2,35 @@ package org.pancakelab.model;
 
 import java.util.UUID;
 
+/**
+ * One topping on one pancake. Kept compact because there is one per topping per pancake:
+ * the id is stored as two longs rather than a {@link UUID} object and the name is the
+ * shared instance from {@link IngredientCatalog}.
+ */
 public class Ingredient {
-    private final UUID id = UUID.randomUUID();
+    private final long idMostSigBits;
+    private final long idLeastSigBits;
     private final String name;
 
     public Ingredient(String name) {
-        this.name = name;
+        this(Ids.next(), name);
+    }
+
+    public Ingredient(UUID id, String name) {
+        this.idMostSigBits = id.getMostSignificantBits();
+        this.idLeastSigBits = id.getLeastSignificantBits();
+        this.name = IngredientCatalog.intern(name);
     }
 
     public UUID getId() {
-        return id;
+        return new UUID(idMostSigBits, idLeastSigBits);
+    }
+
+    /**
+     * Compares the id without materializing a {@link UUID}.
+     */
+    public boolean hasId(UUID id) {
+        return id.getMostSignificantBits() == idMostSigBits && id.getLeastSignificantBits() == idLeastSigBits;
     }
 
     public String getName() {
@@ -23,11 +42,13 @@ public class Ingredient {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Ingredient that = (Ingredient) o;
-        return getId().equals(that.getId());
+        return idMostSigBits == that.idMostSigBits && idLeastSigBits == that.idLeastSigBits;
     }
 
     @Override
     public int hashCode() {
-        return id.hashCode();
+        // Same as UUID.hashCode() of the id
+        long hilo = idMostSigBits ^ idLeastSigBits;
+        return ((int) (hilo >> 32)) ^ (int) hilo;
     }
 }
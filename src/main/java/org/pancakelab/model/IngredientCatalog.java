@@ -0,0 +1,42 @@
+package org.pancakelab.model;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Canonical ingredient names. The menu only has a few dozen toppings, so every
+ * {@link Ingredient} refers to one shared name instance instead of carrying its own copy
+ * decoded from the request, and ingredient heap scales with the menu rather than with
+ * the number of pancakes.
+ * <p>
+ * Names come from clients, so the catalog is bounded: once it is full, unknown names are
+ * used as given rather than interned.
+ */
+public final class IngredientCatalog {
+    private static final int MAX_NAMES = 1024;
+    private static final ConcurrentHashMap<String, String> NAMES = new ConcurrentHashMap<>();
+
+    private IngredientCatalog() {
+    }
+
+    /**
+     * Returns the canonical instance equal to {@code name}.
+     */
+    public static String intern(String name) {
+        if (name == null) {
+            return null;
+        }
+        String canonical = NAMES.get(name);
+        if (canonical != null) {
+            return canonical;
+        }
+        if (NAMES.size() >= MAX_NAMES) {
+            return name;
+        }
+        canonical = NAMES.putIfAbsent(name, name);
+        return canonical != null ? canonical : name;
+    }
+
+    public static int size() {
+        return NAMES.size();
+    }
+}
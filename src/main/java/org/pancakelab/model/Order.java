@@ -1,22 +1,49 @@
 package org.pancakelab.model;
 
-import java.util.ArrayList;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class Order {
+    private static final VarHandle STATE;
+
+    static {
+        try {
+            STATE = MethodHandles.lookup().findVarHandle(Order.class, "state", OrderState.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     private final UUID id;
     private final int building;
     private final int room;
-    private final List<Pancake> pancakes;
+    // Id index for O(1) lookup; only changed under this monitor
+    private final Map<UUID, Pancake> pancakeIndex;
+    // Immutable, insertion-ordered snapshot republished by every change; final once the
+    // order leaves OPEN, since that transition and the edits share this monitor
+    private volatile List<Pancake> pancakes;
     private volatile OrderState state;
 
     public Order(int building, int room) {
-        this.id = UUID.randomUUID();
+        this(Ids.next(), building, room);
+    }
+
+    /**
+     * Recreates an order under a known id, e.g. when replaying the write-ahead log.
+     */
+    public Order(UUID id, int building, int room) {
+        this.id = id;
         this.building = building;
         this.room = room;
-        this.pancakes = new ArrayList<>();
+        this.pancakeIndex = new ConcurrentHashMap<>();
+        this.pancakes = List.of();
         this.state = OrderState.OPEN;
     }
 
@@ -32,40 +59,66 @@ public class Order {
         return room;
     }
 
-    public synchronized OrderState getState() {
+    public OrderState getState() {
         return state;
     }
 
-    public synchronized boolean compareAndSetState(OrderState expect, OrderState update) {
-        if (state == expect) {
-            state = update;
-            return true;
+    /**
+     * State transition by CAS. Leaving OPEN takes this order's monitor so it cannot
+     * interleave with a pancake edit; every later transition is lock-free.
+     */
+    public boolean compareAndSetState(OrderState expect, OrderState update) {
+        if (expect == OrderState.OPEN) {
+            synchronized (this) {
+                return STATE.compareAndSet(this, expect, update);
+            }
         }
-        return false;
+        return STATE.compareAndSet(this, expect, update);
+    }
+
+    /**
+     * Returns the current immutable snapshot of the pancakes in insertion order. Readers
+     * never lock or copy; writers publish a new snapshot (copy-on-write).
+     */
+    public List<Pancake> getPancakes() {
+        return pancakes;
     }
 
-    public synchronized List<Pancake> getPancakes() {
-        return new ArrayList<>(pancakes);
+    public int getPancakeCount() {
+        return pancakes.size();
     }
 
     public synchronized void addPancake(Pancake pancake) {
         if (state != OrderState.OPEN) {
             throw new IllegalStateException("Can only add pancakes to OPEN orders");
         }
-        pancakes.add(pancake);
+        List<Pancake> previous = pancakes;
+        Pancake[] next = previous.toArray(new Pancake[previous.size() + 1]);
+        next[previous.size()] = pancake;
+        pancakeIndex.put(pancake.getId(), pancake);
+        pancakes = Collections.unmodifiableList(Arrays.asList(next));
     }
 
     public synchronized void removePancake(UUID pancakeId) {
         if (state != OrderState.OPEN) {
             throw new IllegalStateException("Can only remove pancakes from OPEN orders");
         }
-        pancakes.removeIf(p -> p.getId().equals(pancakeId));
+        Pancake removed = pancakeIndex.remove(pancakeId);
+        if (removed != null) {
+            List<Pancake> previous = pancakes;
+            Pancake[] next = new Pancake[previous.size() - 1];
+            int i = 0;
+            for (Pancake pancake : previous) {
+                if (pancake != removed) {
+                    next[i++] = pancake;
+                }
+            }
+            pancakes = Collections.unmodifiableList(Arrays.asList(next));
+        }
     }
 
-    public synchronized Optional<Pancake> getPancake(UUID pancakeId) {
-        return pancakes.stream()
-                .filter(p -> p.getId().equals(pancakeId))
-                .findFirst();
+    public Optional<Pancake> getPancake(UUID pancakeId) {
+        return Optional.ofNullable(pancakeIndex.get(pancakeId));
     }
 
     @Override
@@ -1,31 +1,53 @@
 package org.pancakelab.model;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 public class Pancake {
-    private final UUID id = UUID.randomUUID();
-    private final List<Ingredient> ingredients = new ArrayList<>();
+    private final UUID id;
+    // Immutable snapshot republished by every change; writers serialize on this
+    private volatile List<Ingredient> ingredients = List.of();
+
+    public Pancake() {
+        this(Ids.next());
+    }
+
+    public Pancake(UUID id) {
+        this.id = id;
+    }
 
     public UUID getId() {
         return id;
     }
 
-    public synchronized List<Ingredient> ingredients() {
-        return new ArrayList<>(ingredients);
+    /**
+     * Returns the current immutable snapshot of the ingredients without locking or copying.
+     */
+    public List<Ingredient> ingredients() {
+        return ingredients;
     }
 
     public synchronized void addIngredient(Ingredient ingredient) {
-        ingredients.add(ingredient);
+        List<Ingredient> previous = ingredients;
+        Ingredient[] next = previous.toArray(new Ingredient[previous.size() + 1]);
+        next[previous.size()] = ingredient;
+        ingredients = Collections.unmodifiableList(Arrays.asList(next));
     }
 
     public synchronized void removeIngredient(UUID ingredientId) {
-        ingredients.removeIf(ingredient -> ingredient.getId().equals(ingredientId));
+        List<Ingredient> previous = ingredients;
+        Ingredient[] next = previous.stream()
+                .filter(ingredient -> !ingredient.hasId(ingredientId))
+                .toArray(Ingredient[]::new);
+        if (next.length != previous.size()) {
+            ingredients = Collections.unmodifiableList(Arrays.asList(next));
+        }
     }
 
-    public synchronized String description() {
+    public String description() {
         return "Delicious pancake with %s!".formatted(
                 ingredients.stream()
                         .map(Ingredient::getName)
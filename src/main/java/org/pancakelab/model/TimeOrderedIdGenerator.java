@@ -0,0 +1,44 @@
+package org.pancakelab.model;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * UUIDv7 (RFC 9562) generator: 48-bit Unix millisecond timestamp, a 12-bit per-thread
+ * counter and 62 bits from {@link ThreadLocalRandom}.
+ * <p>
+ * All state is per thread, so creating ids never contends. Within a thread ids are
+ * strictly increasing: the counter starts at a random value in its lower half each
+ * millisecond and, if it overflows, borrows the next millisecond. Across threads the
+ * random bits keep ids unique.
+ */
+final class TimeOrderedIdGenerator implements IdGenerator {
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000_0000_0000_0000L;
+    private static final int COUNTER_MAX = 0xFFF;
+
+    private static final ThreadLocal<State> STATE = ThreadLocal.withInitial(State::new);
+
+    @Override
+    public UUID nextId() {
+        State state = STATE.get();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long now = System.currentTimeMillis();
+        if (now > state.millis) {
+            state.millis = now;
+            state.counter = random.nextInt(COUNTER_MAX / 2 + 1);
+        } else if (++state.counter > COUNTER_MAX) {
+            // Same (or earlier) millisecond and counter exhausted: move the clock on
+            state.millis++;
+            state.counter = 0;
+        }
+        long msb = (state.millis << 16) | VERSION | state.counter;
+        long lsb = VARIANT | (random.nextLong() >>> 2);
+        return new UUID(msb, lsb);
+    }
+
+    private static final class State {
+        private long millis = -1;
+        private int counter;
+    }
+}
@@ -0,0 +1,13 @@
+package org.pancakelab.service;
+
+import org.pancakelab.model.Order;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One page of orders in id order. {@code nextCursor} is the id to continue after, or
+ * {@code null} on the last page.
+ */
+public record OrderPage(List<Order> orders, UUID nextCursor) {
+}
@@ -18,6 +18,13 @@ public interface OrderService {
 
     List<Order> getOrdersByState(OrderState state);
 
+    /**
+     * Up to {@code limit} live orders with an id after {@code after} (from the start when
+     * null), in id order and optionally only those in {@code state}. Orders are ordered by
+     * id, which follows creation time with time-ordered ids.
+     */
+    OrderPage getOrders(OrderState state, UUID after, int limit);
+
     // Update state
     void completeOrder(UUID orderId);    // Changes state to COMPLETED
 
@@ -1,20 +1,45 @@
 package org.pancakelab.service;
 
+import org.pancakelab.config.Configuration;
 import org.pancakelab.service.impl.OrderServiceImpl;
+import org.pancakelab.service.impl.OrderWriteAheadLog;
 import org.pancakelab.service.impl.PancakeServiceImpl;
+import org.pancakelab.util.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Simple service factory to manage dependencies and service instantiation.
  * This replaces the singleton pattern with proper dependency injection.
  */
-public class ServiceFactory {
+public class ServiceFactory implements AutoCloseable {
     private final OrderService orderService;
     private final PancakeService pancakeService;
+    private final OrderWriteAheadLog wal;
+    private ScheduledExecutorService snapshotScheduler;
 
     public ServiceFactory() {
+        this(openConfiguredWal());
+        int snapshotIntervalMs = Configuration.getInstance().getSnapshotIntervalMs();
+        if (wal != null && snapshotIntervalMs > 0) {
+            scheduleSnapshots(snapshotIntervalMs);
+        }
+    }
+
+    /**
+     * Creates services backed by {@code wal}, recovering the orders it holds, or purely
+     * in memory when it is null.
+     */
+    public ServiceFactory(OrderWriteAheadLog wal) {
         // Create services with proper dependency injection
-        this.orderService = new OrderServiceImpl();
-        this.pancakeService = new PancakeServiceImpl(orderService);
+        this.wal = wal;
+        this.orderService = new OrderServiceImpl(wal);
+        this.pancakeService = new PancakeServiceImpl(orderService, wal);
     }
 
     public OrderService getOrderService() {
@@ -24,4 +49,74 @@ public class ServiceFactory {
     public PancakeService getPancakeService() {
         return pancakeService;
     }
+
+    /**
+     * Snapshots the order store every {@code intervalMs} on a background thread.
+     */
+    public synchronized void scheduleSnapshots(long intervalMs) {
+        if (wal == null) {
+            throw new IllegalStateException("Snapshots require a write-ahead log");
+        }
+        stopSnapshots();
+        snapshotScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "PancakeSnapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        OrderServiceImpl orders = (OrderServiceImpl) orderService;
+        snapshotScheduler.scheduleWithFixedDelay(() -> {
+            try {
+                orders.snapshot();
+            } catch (Exception e) {
+                Logger.error("Order snapshot failed", e);
+            }
+        }, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        stopSnapshots();
+        if (wal != null) {
+            try {
+                wal.close();
+            } catch (IOException e) {
+                Logger.error("Failed to close write-ahead log", e);
+            }
+        }
+    }
+
+    /**
+     * Cancels future snapshots and waits for one in progress, which interrupting could
+     * abort half-written and lose.
+     */
+    private void stopSnapshots() {
+        if (snapshotScheduler == null) {
+            return;
+        }
+        snapshotScheduler.shutdown();
+        try {
+            if (!snapshotScheduler.awaitTermination(30, TimeUnit.SECONDS)) {
+                Logger.warn("Order snapshot still running after 30 s; continuing without it");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        snapshotScheduler = null;
+    }
+
+    private static OrderWriteAheadLog openConfiguredWal() {
+        Configuration config = Configuration.getInstance();
+        if (!config.isWalEnabled()) {
+            return null;
+        }
+        try {
+            long start = System.nanoTime();
+            OrderWriteAheadLog wal = OrderWriteAheadLog.open(Path.of(config.getWalDirectory()), config.isWalFsync());
+            Logger.info("Recovered %d snapshot orders and %d write-ahead log records in %d ms",
+                    wal.getSnapshotOrders(), wal.getRecoveredRecords(), (System.nanoTime() - start) / 1_000_000);
+            return wal;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open write-ahead log in " + config.getWalDirectory(), e);
+        }
+    }
 }
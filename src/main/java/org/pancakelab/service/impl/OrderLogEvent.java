@@ -0,0 +1,43 @@
+package org.pancakelab.service.impl;
+
+import org.pancakelab.model.OrderState;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.UUID;
+
+/**
+ * One entry of the order audit trail. Captured as raw values on the request path and
+ * only rendered to text by {@link #format()} when the log is read.
+ */
+public record OrderLogEvent(long sequence, long timestamp, Type type, UUID orderId, int building, int room,
+                            UUID pancakeId, UUID ingredientId, String ingredientName, int pancakeCount,
+                            OrderState oldState, OrderState newState) {
+
+    public enum Type {
+        ADD_PANCAKE,
+        REMOVE_PANCAKE,
+        ADD_INGREDIENT,
+        REMOVE_INGREDIENT,
+        STATE_CHANGE
+    }
+
+    public String format() {
+        String time = LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault())
+                .format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        return switch (type) {
+            case ADD_PANCAKE -> "[%s] Added new pancake to order %s (Building %d, Room %d). Current pancakes count: %d"
+                    .formatted(time, orderId, building, room, pancakeCount);
+            case REMOVE_PANCAKE -> "[%s] Removed pancake %s from order %s. Current pancakes count: %d"
+                    .formatted(time, pancakeId, orderId, pancakeCount);
+            case ADD_INGREDIENT -> "[%s] Added ingredient '%s' to pancake %s in order %s"
+                    .formatted(time, ingredientName, pancakeId, orderId);
+            case REMOVE_INGREDIENT -> "[%s] Removed ingredient %s from pancake %s in order %s"
+                    .formatted(time, ingredientId, pancakeId, orderId);
+            case STATE_CHANGE -> "[%s] Order %s state changed from %s to %s (Building %d, Room %d)"
+                    .formatted(time, orderId, oldState, newState, building, room);
+        };
+    }
+}
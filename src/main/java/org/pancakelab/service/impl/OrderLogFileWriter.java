@@ -0,0 +1,239 @@
+package org.pancakelab.service.impl;
+
+import org.pancakelab.util.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Background follower of the audit ring that appends every event to segment files
+ * ({@code audit-000001.log}, {@code audit-000002.log}, ...) through a {@link FileChannel}.
+ * <p>
+ * Request threads never touch the file. Events are written in batches and the channel is
+ * forced once {@code commitBytes} are unsynced or {@code commitIntervalMs} has passed
+ * since the first unsynced write (group commit). A {@code commitBytes} of 1 forces after
+ * every event. Events overwritten in the ring before the writer reached them are counted
+ * as dropped and logged as a gap in the persisted trail.
+ */
+public class OrderLogFileWriter implements AutoCloseable {
+    private static final String SEGMENT_PREFIX = "audit-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final int DRAIN_BATCH = 1024;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    // How long close() waits for a claimed event that is never published
+    private static final long CLOSE_WAIT_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final OrderLogRingBuffer ring;
+    private final Path directory;
+    private final long segmentBytes;
+    private final long commitBytes;
+    private final long commitIntervalNanos;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+    private final Thread thread;
+
+    private volatile boolean running = true;
+    // Written only by the writer thread, read by monitoring callers
+    private volatile long persistedSequence;
+    private volatile long droppedEvents;
+    private volatile long syncCount;
+
+    private FileChannel channel;
+    private int segmentIndex;
+    private long segmentSize;
+    private long cursor;
+    private long bufferedSequence;
+    private long writtenSequence;
+    private long unsyncedBytes;
+    private long firstUnsyncedNanos;
+
+    OrderLogFileWriter(OrderLogRingBuffer ring, Path directory, long segmentBytes, long commitBytes,
+                       long commitIntervalMs) throws IOException {
+        if (segmentBytes <= 0 || commitBytes <= 0 || commitIntervalMs < 0) {
+            throw new IllegalArgumentException("Segment and commit sizes must be positive");
+        }
+        this.ring = ring;
+        this.directory = Files.createDirectories(directory);
+        this.segmentBytes = segmentBytes;
+        this.commitBytes = commitBytes;
+        this.commitIntervalNanos = TimeUnit.MILLISECONDS.toNanos(commitIntervalMs);
+        this.cursor = ring.firstRetainedSequence();
+        this.bufferedSequence = cursor;
+        this.writtenSequence = cursor;
+        this.persistedSequence = cursor;
+        this.segmentIndex = lastSegmentIndex(this.directory);
+        openNextSegment();
+        this.thread = new Thread(this::run, "PancakeAuditWriter");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Every event with a lower sequence is either on disk and forced, or was dropped.
+     */
+    public long getPersistedSequence() {
+        return persistedSequence;
+    }
+
+    public long getDroppedEvents() {
+        return droppedEvents;
+    }
+
+    public long getSyncCount() {
+        return syncCount;
+    }
+
+    /**
+     * Drains the events already published, forces them to disk and closes the segment.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        try {
+            long stalledSince = 0;
+            while (true) {
+                boolean stopping = !running;
+                OrderLogPage page = ring.readPublished(cursor, DRAIN_BATCH);
+                long skipped = page.nextSequence() - cursor - page.events().size();
+                if (skipped > 0) {
+                    droppedEvents += skipped;
+                    Logger.warn("Audit log writer fell behind: events %d to %d were overwritten before they were persisted",
+                            cursor, cursor + skipped - 1);
+                }
+                for (OrderLogEvent event : page.events()) {
+                    append(event);
+                }
+                cursor = page.nextSequence();
+                bufferedSequence = cursor;
+                writeBuffer();
+                if (unsyncedBytes >= commitBytes
+                        || (unsyncedBytes > 0 && System.nanoTime() - firstUnsyncedNanos >= commitIntervalNanos)) {
+                    sync();
+                } else if (unsyncedBytes == 0) {
+                    persistedSequence = writtenSequence;
+                }
+                if (page.events().isEmpty()) {
+                    // hasMore without events: the next slot is claimed but not yet published
+                    if (stopping) {
+                        if (!page.hasMore()) {
+                            break;
+                        }
+                        if (stalledSince == 0) {
+                            stalledSince = System.nanoTime();
+                        } else if (System.nanoTime() - stalledSince >= CLOSE_WAIT_NANOS) {
+                            Logger.warn("Audit log writer closed with unpublished event %d", cursor);
+                            break;
+                        }
+                    }
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                } else {
+                    stalledSince = 0;
+                }
+            }
+            sync();
+        } catch (IOException e) {
+            Logger.error("Audit log writer stopped: " + e.getMessage(), e);
+        } finally {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // Nothing left to release
+            }
+        }
+    }
+
+    private void append(OrderLogEvent event) throws IOException {
+        byte[] line = (event.format() + '\n').getBytes(StandardCharsets.UTF_8);
+        if (line.length > buffer.remaining()) {
+            writeBuffer();
+        }
+        if (line.length > buffer.capacity()) {
+            write(ByteBuffer.wrap(line));
+        } else {
+            buffer.put(line);
+        }
+        bufferedSequence = event.sequence() + 1;
+        if (unsyncedBytes + buffer.position() >= commitBytes) {
+            writeBuffer();
+            sync();
+        }
+    }
+
+    private void writeBuffer() throws IOException {
+        if (buffer.position() > 0) {
+            buffer.flip();
+            write(buffer);
+            buffer.clear();
+        }
+        writtenSequence = bufferedSequence;
+    }
+
+    private void write(ByteBuffer bytes) throws IOException {
+        if (segmentSize > 0 && segmentSize + bytes.remaining() > segmentBytes) {
+            sync();
+            channel.close();
+            openNextSegment();
+        }
+        if (unsyncedBytes == 0) {
+            firstUnsyncedNanos = System.nanoTime();
+        }
+        int length = bytes.remaining();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        segmentSize += length;
+        unsyncedBytes += length;
+    }
+
+    private void sync() throws IOException {
+        if (unsyncedBytes > 0) {
+            channel.force(false);
+            unsyncedBytes = 0;
+            syncCount++;
+        }
+        persistedSequence = writtenSequence;
+    }
+
+    private void openNextSegment() throws IOException {
+        segmentIndex++;
+        Path segment = directory.resolve(SEGMENT_PREFIX + String.format("%06d", segmentIndex) + SEGMENT_SUFFIX);
+        channel = FileChannel.open(segment, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        segmentSize = 0;
+    }
+
+    private static int lastSegmentIndex(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .mapToInt(name -> parseIndex(name.substring(SEGMENT_PREFIX.length(),
+                            name.length() - SEGMENT_SUFFIX.length())))
+                    .max()
+                    .orElse(0);
+        }
+    }
+
+    private static int parseIndex(String digits) {
+        try {
+            return Integer.parseInt(digits);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package org.pancakelab.service.impl;
+
+import java.util.List;
+
+/**
+ * A slice of the retained order log. Pass {@code nextSequence} back to continue reading.
+ */
+public record OrderLogPage(List<OrderLogEvent> events, long nextSequence, boolean hasMore) {
+}
@@ -0,0 +1,94 @@
+package org.pancakelab.service.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded multi-producer ring of log events. Writers claim a sequence number with one
+ * atomic increment and publish into its slot, so appends never block; once the ring is
+ * full the oldest events are overwritten. Readers validate each slot against the
+ * sequence they expect and skip slots that were overwritten or not yet published.
+ */
+class OrderLogRingBuffer {
+    private final AtomicReferenceArray<OrderLogEvent> slots;
+    private final AtomicLong nextSequence = new AtomicLong();
+    private final int mask;
+
+    OrderLogRingBuffer(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a positive power of two: " + capacity);
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    long claim() {
+        return nextSequence.getAndIncrement();
+    }
+
+    void publish(OrderLogEvent event) {
+        slots.setRelease((int) (event.sequence() & mask), event);
+    }
+
+    int capacity() {
+        return slots.length();
+    }
+
+    /**
+     * Sequence the next event will get; everything below it has been claimed.
+     */
+    long nextSequence() {
+        return nextSequence.get();
+    }
+
+    /**
+     * Oldest sequence still retained in the ring.
+     */
+    long firstRetainedSequence() {
+        return Math.max(0, nextSequence.get() - slots.length());
+    }
+
+    /**
+     * Reads up to {@code limit} events starting at {@code fromSequence}, clamped to the
+     * retained window.
+     */
+    OrderLogPage read(long fromSequence, int limit) {
+        long end = nextSequence.get();
+        long start = Math.max(fromSequence, end - slots.length());
+        start = Math.max(start, 0);
+        List<OrderLogEvent> events = new ArrayList<>((int) Math.min(limit, Math.max(0, end - start)));
+        long sequence = start;
+        for (; sequence < end && events.size() < limit; sequence++) {
+            OrderLogEvent event = slots.getAcquire((int) (sequence & mask));
+            if (event != null && event.sequence() == sequence) {
+                events.add(event);
+            }
+        }
+        return new OrderLogPage(events, sequence, sequence < end);
+    }
+
+    /**
+     * Reads up to {@code limit} events in sequence order starting at {@code fromSequence},
+     * stopping at the first slot that is claimed but not yet published so a follower never
+     * passes an in-flight append. Overwritten sequences are skipped; the caller can count
+     * them from the returned page.
+     */
+    OrderLogPage readPublished(long fromSequence, int limit) {
+        long end = nextSequence.get();
+        long sequence = Math.max(fromSequence, Math.max(0, end - slots.length()));
+        List<OrderLogEvent> events = new ArrayList<>();
+        while (sequence < end && events.size() < limit) {
+            OrderLogEvent event = slots.getAcquire((int) (sequence & mask));
+            if (event == null || event.sequence() < sequence) {
+                break;
+            }
+            if (event.sequence() == sequence) {
+                events.add(event);
+            }
+            sequence++;
+        }
+        return new OrderLogPage(events, sequence, sequence < end);
+    }
+}
@@ -1,73 +1,115 @@
 package org.pancakelab.service.impl;
 
+import org.pancakelab.config.Configuration;
 import org.pancakelab.model.Ingredient;
 import org.pancakelab.model.Order;
 import org.pancakelab.model.OrderState;
 import org.pancakelab.model.Pancake;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.UUID;
 
+/**
+ * Order audit trail kept in a bounded, lock-free ring of structured events. Request
+ * threads only record raw values; text is produced when the log is read.
+ */
 public class OrderLogServiceImpl {
-    private static final StringBuilder log = new StringBuilder();
+    private static final OrderLogRingBuffer log =
+            new OrderLogRingBuffer(roundUpToPowerOfTwo(Configuration.getInstance().getOrderLogCapacity()));
+    private static OrderLogFileWriter fileWriter;
+    private static long droppedByStoppedWriters;
 
     public static void logAddPancake(Order order) {
-        log.append("[%s] Added new pancake to order %s (Building %d, Room %d). Current pancakes count: %d\n"
-                .formatted(
-                        getCurrentTime(),
-                        order.getId(),
-                        order.getBuilding(),
-                        order.getRoom(),
-                        order.getPancakes().size()
-                ));
+        record(OrderLogEvent.Type.ADD_PANCAKE, order, null, null, null, order.getPancakeCount(), null, null);
     }
 
     public static void logAddIngredient(Order order, Pancake pancake, Ingredient ingredient) {
-        log.append("[%s] Added ingredient '%s' to pancake %s in order %s\n"
-                .formatted(
-                        getCurrentTime(),
-                        ingredient.getName(),
-                        pancake.getId(),
-                        order.getId()
-                ));
+        record(OrderLogEvent.Type.ADD_INGREDIENT, order, pancake.getId(), ingredient.getId(), ingredient.getName(),
+                0, null, null);
     }
 
     public static void logRemoveIngredient(Order order, Pancake pancake, UUID ingredientId) {
-        log.append("[%s] Removed ingredient %s from pancake %s in order %s\n"
-                .formatted(
-                        getCurrentTime(),
-                        ingredientId,
-                        pancake.getId(),
-                        order.getId()
-                ));
+        record(OrderLogEvent.Type.REMOVE_INGREDIENT, order, pancake.getId(), ingredientId, null, 0, null, null);
     }
 
     public static void logRemovePancake(Order order, UUID pancakeId) {
-        log.append("[%s] Removed pancake %s from order %s. Current pancakes count: %d\n"
-                .formatted(
-                        getCurrentTime(),
-                        pancakeId,
-                        order.getId(),
-                        order.getPancakes().size()
-                ));
+        record(OrderLogEvent.Type.REMOVE_PANCAKE, order, pancakeId, null, null, order.getPancakeCount(), null, null);
     }
 
     public static void logOrderStateChange(Order order, OrderState oldState, OrderState newState) {
-        log.append("[%s] Order %s state changed from %s to %s (Building %d, Room %d)\n"
-                .formatted(
-                        getCurrentTime(),
-                        order.getId(),
-                        oldState,
-                        newState,
-                        order.getBuilding(),
-                        order.getRoom()
-                ));
+        record(OrderLogEvent.Type.STATE_CHANGE, order, null, null, null, 0, oldState, newState);
     }
 
+    /**
+     * Reads up to {@code limit} retained events starting at {@code fromSequence}.
+     * Sequences older than the retained window are skipped.
+     */
+    public static OrderLogPage getEvents(long fromSequence, int limit) {
+        return log.read(fromSequence, limit);
+    }
+
+    public static long getFirstRetainedSequence() {
+        return log.firstRetainedSequence();
+    }
+
+    /**
+     * Formats every retained event, oldest first.
+     */
     public static String getFullLog() {
-        return log.toString();
+        StringBuilder text = new StringBuilder();
+        for (OrderLogEvent event : log.read(0, log.capacity()).events()) {
+            text.append(event.format()).append('\n');
+        }
+        return text.toString();
+    }
+
+    /**
+     * Starts persisting the audit trail to disk as configured by {@code order.log.file.*}.
+     */
+    public static OrderLogFileWriter startFileWriter() throws IOException {
+        Configuration config = Configuration.getInstance();
+        return startFileWriter(Path.of(config.getOrderLogFileDirectory()), config.getOrderLogFileSegmentBytes(),
+                config.getOrderLogFileCommitBytes(), config.getOrderLogFileCommitIntervalMs());
+    }
+
+    public static synchronized OrderLogFileWriter startFileWriter(Path directory, long segmentBytes,
+                                                                  long commitBytes, long commitIntervalMs)
+            throws IOException {
+        if (fileWriter != null) {
+            throw new IllegalStateException("Audit log file writer is already running");
+        }
+        fileWriter = new OrderLogFileWriter(log, directory, segmentBytes, commitBytes, commitIntervalMs);
+        return fileWriter;
+    }
+
+    /**
+     * Flushes everything recorded so far to disk and stops the file writer, if running.
+     */
+    public static synchronized void stopFileWriter() {
+        if (fileWriter != null) {
+            fileWriter.close();
+            droppedByStoppedWriters += fileWriter.getDroppedEvents();
+            fileWriter = null;
+        }
+    }
+
+    /**
+     * Events overwritten in the ring before a file writer persisted them, since startup.
+     */
+    public static synchronized long getDroppedFileEvents() {
+        return droppedByStoppedWriters + (fileWriter != null ? fileWriter.getDroppedEvents() : 0);
+    }
+
+    private static void record(OrderLogEvent.Type type, Order order, UUID pancakeId, UUID ingredientId,
+                               String ingredientName, int pancakeCount, OrderState oldState, OrderState newState) {
+        long sequence = log.claim();
+        log.publish(new OrderLogEvent(sequence, System.currentTimeMillis(), type, order.getId(),
+                order.getBuilding(), order.getRoom(), pancakeId, ingredientId, ingredientName, pancakeCount,
+                oldState, newState));
     }
 
-    private static String getCurrentTime() {
-        return java.time.LocalDateTime.now().format(java.time.format.DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    private static int roundUpToPowerOfTwo(int capacity) {
+        return capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
     }
 }
@@ -2,23 +2,50 @@ package org.pancakelab.service.impl;
 
 import org.pancakelab.model.Order;
 import org.pancakelab.model.OrderState;
+import org.pancakelab.service.OrderPage;
 import org.pancakelab.service.OrderService;
 
+import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 public class OrderServiceImpl implements OrderService {
     private final Map<UUID, Order> orders = new ConcurrentHashMap<>();
+    // Same orders sorted by id, so pages can resume after a cursor in O(log n + page)
+    private final ConcurrentSkipListMap<UUID, Order> ordersById = new ConcurrentSkipListMap<>();
+    private final OrderStateIndex stateIndex = new OrderStateIndex();
+    private final OrderWriteAheadLog wal;
 
     public OrderServiceImpl() {
         // Remove singleton pattern - allow normal instantiation
+        this(null);
+    }
+
+    /**
+     * Loads the orders recovered from {@code wal} and appends every mutation to it
+     * before returning. A null log keeps orders in memory only.
+     */
+    public OrderServiceImpl(OrderWriteAheadLog wal) {
+        this.wal = wal;
+        if (wal != null) {
+            for (Order order : wal.takeRecoveredOrders()) {
+                orders.put(order.getId(), order);
+                ordersById.put(order.getId(), order);
+                stateIndex.reconcile(order, this::isLive);
+            }
+        }
     }
 
     @Override
     public Order createOrder(int building, int room) {
         Order order = new Order(building, room);
         orders.put(order.getId(), order);
+        ordersById.put(order.getId(), order);
+        stateIndex.reconcile(order, this::isLive);
+        if (wal != null) {
+            wal.orderCreated(order);
+        }
         return order;
     }
 
@@ -34,9 +61,29 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     public List<Order> getOrdersByState(OrderState state) {
-        return orders.values().stream()
-                .filter(order -> order.getState() == state)
-                .collect(Collectors.toList());
+        return stateIndex.get(state);
+    }
+
+    @Override
+    public OrderPage getOrders(OrderState state, UUID after, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        NavigableMap<UUID, Order> view = state == null ? ordersById : stateIndex.view(state);
+        if (after != null) {
+            view = view.tailMap(after, false);
+        }
+        List<Order> page = new ArrayList<>(Math.min(limit, 1024));
+        for (Order order : view.values()) {
+            if (state != null && order.getState() != state) {
+                continue;
+            }
+            if (page.size() == limit) {
+                return new OrderPage(page, page.get(page.size() - 1).getId());
+            }
+            page.add(order);
+        }
+        return new OrderPage(page, null);
     }
 
     @Override
@@ -53,19 +100,19 @@ public class OrderServiceImpl implements OrderService {
     public void startDelivery(UUID orderId) {
         updateOrderState(orderId, OrderState.OUT_FOR_DELIVERY);
         // Remove from active orders since it's now out for delivery
-        orders.remove(orderId);
+        removeOrder(orderId);
     }
 
     @Override
     public void cancelOrder(UUID orderId) {
         updateOrderState(orderId, OrderState.CANCELLED);
         // Remove from active orders since it's cancelled
-        orders.remove(orderId);
+        removeOrder(orderId);
     }
 
     @Override
     public void deleteOrder(UUID orderId) {
-        if (orders.remove(orderId) == null) {
+        if (removeOrder(orderId) == null) {
             throw new IllegalArgumentException("Order not found");
         }
     }
@@ -75,29 +122,55 @@ public class OrderServiceImpl implements OrderService {
         return !orders.containsKey(orderId);
     }
 
-    private synchronized void updateOrderState(UUID orderId, OrderState newState) {
+    /**
+     * Writes a snapshot of all live orders to the write-ahead log directory so older log
+     * segments can be dropped. Writers are not paused.
+     */
+    public void snapshot() throws IOException {
+        if (wal == null) {
+            throw new IllegalStateException("Snapshots require a write-ahead log");
+        }
+        wal.snapshot(this::getAllOrders);
+    }
+
+    private void updateOrderState(UUID orderId, OrderState newState) {
         Order order = orders.get(orderId);
         if (order == null) {
             throw new IllegalArgumentException("Order not found");
         }
 
-        OrderState currentState = order.getState();
-        validateStateTransition(currentState, newState);
-
-        // Simple state update without retry logic
-        if (!order.compareAndSetState(currentState, newState)) {
-            // If CAS fails, try once more with current state
+        // Lock-free: retry against the latest state until the CAS wins or the transition is invalid
+        OrderState currentState;
+        do {
             currentState = order.getState();
             validateStateTransition(currentState, newState);
-            if (!order.compareAndSetState(currentState, newState)) {
-                throw new IllegalStateException("Failed to update order state due to concurrent modification");
-            }
+        } while (!order.compareAndSetState(currentState, newState));
+
+        stateIndex.reconcile(order, this::isLive);
+        if (wal != null) {
+            wal.stateChanged(orderId, newState);
         }
 
         // Log the successful state change
         OrderLogServiceImpl.logOrderStateChange(order, currentState, newState);
     }
 
+    private Order removeOrder(UUID orderId) {
+        Order removed = orders.remove(orderId);
+        if (removed != null) {
+            ordersById.remove(orderId, removed);
+            stateIndex.reconcile(removed, this::isLive);
+            if (wal != null) {
+                wal.orderRemoved(orderId);
+            }
+        }
+        return removed;
+    }
+
+    private boolean isLive(Order order) {
+        return orders.get(order.getId()) == order;
+    }
+
     private void validateStateTransition(OrderState currentState, OrderState newState) {
         // Define valid state transitions
         if (currentState == newState) {
@@ -0,0 +1,136 @@
+package org.pancakelab.service.impl;
+
+import org.pancakelab.model.Ingredient;
+import org.pancakelab.model.Order;
+import org.pancakelab.model.OrderState;
+import org.pancakelab.model.Pancake;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Compact binary image of every live order, paired with the first write-ahead log
+ * segment that still has to be replayed on top of it.
+ * <p>
+ * Layout: {@code magic, version, firstSegment, orderCount}, then per order its id,
+ * building, room, state and pancakes with their ingredients, and a trailing CRC32C.
+ * Files are written to a temporary name, synced and renamed, so a crash mid-write never
+ * leaves a partial snapshot under the final name. Loading maps the file into memory.
+ */
+final class OrderSnapshotFile {
+    private static final int MAGIC = 0x504C534E; // "PLSN"
+    private static final int VERSION = 1;
+    private static final OrderState[] STATES = OrderState.values();
+
+    private OrderSnapshotFile() {
+    }
+
+    static void write(Path file, List<Order> orders, long firstSegment) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        CRC32C checksum = new CRC32C();
+        try (FileOutputStream fileOut = new FileOutputStream(temp.toFile())) {
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new CheckedOutputStream(fileOut, checksum), 64 * 1024));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(firstSegment);
+            out.writeInt(orders.size());
+            for (Order order : orders) {
+                writeOrder(out, order);
+            }
+            out.flush();
+            out.writeInt((int) checksum.getValue());
+            out.flush();
+            fileOut.getFD().sync();
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Hands every order in the snapshot to {@code sink} in its OPEN state together with
+     * its recorded state, and returns the first segment to replay after it.
+     */
+    static long load(Path file, BiConsumer<Order, OrderState> sink) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot too large to map: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int bodyLength = buffer.limit() - Integer.BYTES;
+            if (bodyLength < 20 || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Not a PancakeLab snapshot: " + file);
+            }
+            CRC32C checksum = new CRC32C();
+            checksum.update(buffer.slice(0, bodyLength));
+            if ((int) checksum.getValue() != buffer.getInt(bodyLength)) {
+                throw new IOException("Snapshot checksum mismatch: " + file);
+            }
+
+            buffer.position(8);
+            long firstSegment = buffer.getLong();
+            int orderCount = buffer.getInt();
+            for (int i = 0; i < orderCount; i++) {
+                Order order = new Order(readUuid(buffer), buffer.getInt(), buffer.getInt());
+                OrderState state = STATES[buffer.get()];
+                int pancakeCount = buffer.getInt();
+                for (int p = 0; p < pancakeCount; p++) {
+                    Pancake pancake = new Pancake(readUuid(buffer));
+                    int ingredientCount = buffer.getInt();
+                    for (int n = 0; n < ingredientCount; n++) {
+                        UUID ingredientId = readUuid(buffer);
+                        byte[] name = new byte[buffer.getInt()];
+                        buffer.get(name);
+                        pancake.addIngredient(new Ingredient(ingredientId, new String(name, StandardCharsets.UTF_8)));
+                    }
+                    order.addPancake(pancake);
+                }
+                sink.accept(order, state);
+            }
+            return firstSegment;
+        }
+    }
+
+    private static void writeOrder(DataOutputStream out, Order order) throws IOException {
+        writeUuid(out, order.getId());
+        out.writeInt(order.getBuilding());
+        out.writeInt(order.getRoom());
+        out.writeByte(order.getState().ordinal());
+        List<Pancake> pancakes = order.getPancakes();
+        out.writeInt(pancakes.size());
+        for (Pancake pancake : pancakes) {
+            writeUuid(out, pancake.getId());
+            List<Ingredient> ingredients = pancake.ingredients();
+            out.writeInt(ingredients.size());
+            for (Ingredient ingredient : ingredients) {
+                writeUuid(out, ingredient.getId());
+                byte[] name = ingredient.getName().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(name.length);
+                out.write(name);
+            }
+        }
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID uuid) throws IOException {
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID readUuid(ByteBuffer buffer) {
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
@@ -0,0 +1,73 @@
+package org.pancakelab.service.impl;
+
+import org.pancakelab.model.Order;
+import org.pancakelab.model.OrderState;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Predicate;
+
+/**
+ * Secondary index of live orders by state, so a state query costs O(matching orders)
+ * instead of a scan of every order. Each state keeps its orders sorted by id, so a page
+ * of one state can resume after a cursor.
+ * <p>
+ * Updates are lock-free: after any change an order is reconciled until its index entry
+ * agrees with its current state and liveness, so racing transitions and removals
+ * converge. Readers re-check the state of each entry and never see a mismatched order.
+ */
+class OrderStateIndex {
+    private final Map<OrderState, ConcurrentSkipListMap<UUID, Order>> byState = new EnumMap<>(OrderState.class);
+
+    OrderStateIndex() {
+        for (OrderState state : OrderState.values()) {
+            byState.put(state, new ConcurrentSkipListMap<>());
+        }
+    }
+
+    /**
+     * Files {@code order} under its current state, or drops it everywhere once
+     * {@code isLive} reports it has left the store.
+     */
+    void reconcile(Order order, Predicate<Order> isLive) {
+        while (true) {
+            OrderState state = order.getState();
+            boolean live = isLive.test(order);
+            if (live) {
+                byState.get(state).put(order.getId(), order);
+            }
+            for (Map.Entry<OrderState, ConcurrentSkipListMap<UUID, Order>> entry : byState.entrySet()) {
+                if (!live || entry.getKey() != state) {
+                    entry.getValue().remove(order.getId(), order);
+                }
+            }
+            if (order.getState() == state && isLive.test(order) == live) {
+                return;
+            }
+        }
+    }
+
+    List<Order> get(OrderState state) {
+        List<Order> result = new ArrayList<>();
+        for (Order order : byState.get(state).values()) {
+            if (order.getState() == state) {
+                result.add(order);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Orders filed under {@code state} by id. Entries may briefly lag a transition, so
+     * callers re-check each order's state.
+     */
+    NavigableMap<UUID, Order> view(OrderState state) {
+        return Collections.unmodifiableNavigableMap(byState.get(state));
+    }
+}
@@ -0,0 +1,508 @@
+package org.pancakelab.service.impl;
+
+import org.pancakelab.model.Ingredient;
+import org.pancakelab.model.Order;
+import org.pancakelab.model.OrderState;
+import org.pancakelab.model.Pancake;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary write-ahead log of every order and pancake mutation, stored as numbered
+ * segments ({@code wal-000001.log}, ...) next to periodic snapshots
+ * ({@code snapshot-000002.bin}, meaning "replay from segment 2").
+ * <p>
+ * Each record is framed as {@code [int length][int crc32c][payload]}, the payload being a
+ * type byte followed by raw UUIDs and ints. Services append a record after the in-memory
+ * change succeeded and before returning, so rejected operations never reach the log and
+ * an acknowledged one is at least in the OS page cache (or on disk with {@code fsync}).
+ * <p>
+ * Opening the log loads the latest snapshot and replays the segments after it. Mutations
+ * of the same order may be appended by different threads in a slightly different order
+ * than they were applied, and a snapshot is taken while writers keep going, so replay is
+ * order-insensitive and idempotent: UUIDs are never reused, removals act as tombstones,
+ * an order's state only moves forward and re-applying an add that the snapshot already
+ * holds is a no-op. A torn record at the tail of a segment is truncated.
+ * <p>
+ * Appends run on request threads, which {@code TimeoutHandler} interrupts when their
+ * deadline expires. An interrupt closes a {@link FileChannel} for every thread sharing it,
+ * so the live segment is written through a {@link FileOutputStream} and forced with
+ * {@link java.io.FileDescriptor#sync()}, neither of which reacts to interrupts.
+ */
+public class OrderWriteAheadLog implements AutoCloseable {
+    private static final byte CREATE_ORDER = 1;
+    private static final byte CHANGE_STATE = 2;
+    private static final byte REMOVE_ORDER = 3;
+    private static final byte ADD_PANCAKE = 4;
+    private static final byte REMOVE_PANCAKE = 5;
+    private static final byte ADD_INGREDIENT = 6;
+    private static final byte REMOVE_INGREDIENT = 7;
+
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+    private static final int HEADER_SIZE = 8;
+    private static final int MAX_RECORD_SIZE = 1 << 20;
+    private static final int READ_BUFFER_SIZE = 1 << 20;
+    private static final OrderState[] STATES = OrderState.values();
+
+    private final Path directory;
+    private final boolean fsync;
+    private final CRC32C checksum = new CRC32C();
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final Object snapshotLock = new Object();
+    private ByteBuffer record = ByteBuffer.allocate(256);
+    private FileOutputStream segmentOut;
+    private long segment;
+    private List<Order> recoveredOrders;
+    private long recoveredRecords;
+    private int snapshotOrders;
+
+    private OrderWriteAheadLog(Path directory, boolean fsync) {
+        this.directory = directory;
+        this.fsync = fsync;
+    }
+
+    /**
+     * Opens (or creates) the log in {@code directory} and recovers from it. With
+     * {@code fsync} every append is forced to disk before it returns.
+     */
+    public static OrderWriteAheadLog open(Path directory, boolean fsync) throws IOException {
+        OrderWriteAheadLog wal = new OrderWriteAheadLog(Files.createDirectories(directory), fsync);
+        try {
+            wal.recover();
+        } catch (IOException | RuntimeException e) {
+            wal.close();
+            throw e;
+        }
+        return wal;
+    }
+
+    /**
+     * Live orders rebuilt from the log, in creation order. Handed out once.
+     */
+    List<Order> takeRecoveredOrders() {
+        List<Order> orders = recoveredOrders;
+        recoveredOrders = List.of();
+        return orders;
+    }
+
+    /**
+     * Number of log records replayed on top of the snapshot during recovery.
+     */
+    public long getRecoveredRecords() {
+        return recoveredRecords;
+    }
+
+    /**
+     * Number of orders loaded from the snapshot during recovery.
+     */
+    public int getSnapshotOrders() {
+        return snapshotOrders;
+    }
+
+    /**
+     * Writes a point-in-time image of {@code liveOrders} and deletes the log segments and
+     * snapshots it supersedes. Appends continue in a fresh segment while the image is
+     * written; anything they change is replayed on top of it.
+     */
+    void snapshot(Supplier<List<Order>> liveOrders) throws IOException {
+        synchronized (snapshotLock) {
+            long firstSegment = rotate();
+            OrderSnapshotFile.write(snapshotPath(firstSegment), liveOrders.get(), firstSegment);
+            for (Map.Entry<Long, Path> entry : list(SEGMENT_PREFIX, SEGMENT_SUFFIX).entrySet()) {
+                if (entry.getKey() < firstSegment) {
+                    Files.delete(entry.getValue());
+                }
+            }
+            for (Map.Entry<Long, Path> entry : list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX).entrySet()) {
+                if (entry.getKey() < firstSegment) {
+                    Files.delete(entry.getValue());
+                }
+            }
+        }
+    }
+
+    void orderCreated(Order order) {
+        ByteBuffer buffer = begin(CREATE_ORDER, 24);
+        putUuid(buffer, order.getId());
+        buffer.putInt(order.getBuilding());
+        buffer.putInt(order.getRoom());
+        append();
+    }
+
+    void stateChanged(UUID orderId, OrderState state) {
+        ByteBuffer buffer = begin(CHANGE_STATE, 17);
+        putUuid(buffer, orderId);
+        buffer.put((byte) state.ordinal());
+        append();
+    }
+
+    void orderRemoved(UUID orderId) {
+        putUuid(begin(REMOVE_ORDER, 16), orderId);
+        append();
+    }
+
+    void pancakeAdded(UUID orderId, UUID pancakeId) {
+        ByteBuffer buffer = begin(ADD_PANCAKE, 32);
+        putUuid(buffer, orderId);
+        putUuid(buffer, pancakeId);
+        append();
+    }
+
+    void pancakeRemoved(UUID orderId, UUID pancakeId) {
+        ByteBuffer buffer = begin(REMOVE_PANCAKE, 32);
+        putUuid(buffer, orderId);
+        putUuid(buffer, pancakeId);
+        append();
+    }
+
+    void ingredientAdded(UUID orderId, UUID pancakeId, Ingredient ingredient) {
+        byte[] name = ingredient.getName().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = begin(ADD_INGREDIENT, 52 + name.length);
+        putUuid(buffer, orderId);
+        putUuid(buffer, pancakeId);
+        putUuid(buffer, ingredient.getId());
+        buffer.putInt(name.length);
+        buffer.put(name);
+        append();
+    }
+
+    void ingredientRemoved(UUID orderId, UUID pancakeId, UUID ingredientId) {
+        ByteBuffer buffer = begin(REMOVE_INGREDIENT, 48);
+        putUuid(buffer, orderId);
+        putUuid(buffer, pancakeId);
+        putUuid(buffer, ingredientId);
+        append();
+    }
+
+    @Override
+    public void close() throws IOException {
+        appendLock.lock();
+        try {
+            if (segmentOut != null && segmentOut.getFD().valid()) {
+                segmentOut.getFD().sync();
+                segmentOut.close();
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    // The record buffer is owned by the thread that called begin() until append() releases it
+    private ByteBuffer begin(byte type, int payloadSize) {
+        appendLock.lock();
+        int size = HEADER_SIZE + 1 + payloadSize;
+        if (size > MAX_RECORD_SIZE) {
+            appendLock.unlock();
+            throw new IllegalArgumentException("Write-ahead log record too large: " + size);
+        }
+        if (record.capacity() < size) {
+            record = ByteBuffer.allocate(Math.max(size, record.capacity() * 2));
+        }
+        record.clear();
+        record.position(HEADER_SIZE);
+        record.put(type);
+        return record;
+    }
+
+    private void append() {
+        try {
+            int length = record.position() - HEADER_SIZE;
+            checksum.reset();
+            checksum.update(record.array(), HEADER_SIZE, length);
+            record.putInt(0, length);
+            record.putInt(4, (int) checksum.getValue());
+            record.flip();
+            segmentOut.write(record.array(), 0, record.limit());
+            if (fsync) {
+                segmentOut.getFD().sync();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to write-ahead log", e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void recover() throws IOException {
+        Replay replay = new Replay();
+        TreeMap<Long, Path> snapshots = list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        long firstSegment = 1;
+        if (!snapshots.isEmpty()) {
+            firstSegment = OrderSnapshotFile.load(snapshots.lastEntry().getValue(), replay::restore);
+            snapshotOrders = replay.orders.size();
+        }
+        // A snapshot that was still being written when the process died
+        for (Path temp : list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX + ".tmp").values()) {
+            Files.delete(temp);
+        }
+
+        segment = firstSegment;
+        for (Map.Entry<Long, Path> entry : list(SEGMENT_PREFIX, SEGMENT_SUFFIX).entrySet()) {
+            if (entry.getKey() < firstSegment) {
+                // Superseded by the snapshot; left behind by a crash before cleanup
+                Files.delete(entry.getValue());
+            } else {
+                try (FileChannel segmentChannel = FileChannel.open(entry.getValue(), StandardOpenOption.READ,
+                        StandardOpenOption.WRITE)) {
+                    replaySegment(segmentChannel, replay);
+                }
+                segment = entry.getKey();
+            }
+        }
+        segmentOut = new FileOutputStream(segmentPath(segment).toFile(), true);
+        recoveredOrders = replay.build();
+    }
+
+    private void replaySegment(FileChannel segmentChannel, Replay replay) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        long validEnd = 0;
+        boolean end = false;
+        while (!end) {
+            end = segmentChannel.read(buffer) < 0;
+            buffer.flip();
+            while (buffer.remaining() >= HEADER_SIZE) {
+                int length = buffer.getInt(buffer.position());
+                int crc = buffer.getInt(buffer.position() + 4);
+                if (length <= 0 || length > MAX_RECORD_SIZE - HEADER_SIZE) {
+                    end = true;
+                    break;
+                }
+                if (buffer.remaining() < HEADER_SIZE + length) {
+                    break;
+                }
+                int start = buffer.position() + HEADER_SIZE;
+                checksum.reset();
+                checksum.update(buffer.array(), start, length);
+                if ((int) checksum.getValue() != crc) {
+                    end = true;
+                    break;
+                }
+                replay.apply(buffer.slice(start, length));
+                buffer.position(start + length);
+                validEnd += HEADER_SIZE + length;
+                recoveredRecords++;
+            }
+            buffer.compact();
+        }
+        // Anything after the last intact record is a torn or corrupt tail
+        if (validEnd < segmentChannel.size()) {
+            segmentChannel.truncate(validEnd);
+        }
+    }
+
+    /**
+     * Closes the current segment and starts the next one, returning its number.
+     */
+    private long rotate() throws IOException {
+        appendLock.lock();
+        try {
+            segmentOut.getFD().sync();
+            segmentOut.close();
+            segment++;
+            segmentOut = new FileOutputStream(Files.createFile(segmentPath(segment)).toFile());
+            return segment;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private Path segmentPath(long index) {
+        return directory.resolve(SEGMENT_PREFIX + String.format("%06d", index) + SEGMENT_SUFFIX);
+    }
+
+    private Path snapshotPath(long firstSegment) {
+        return directory.resolve(SNAPSHOT_PREFIX + String.format("%06d", firstSegment) + SNAPSHOT_SUFFIX);
+    }
+
+    private TreeMap<Long, Path> list(String prefix, String suffix) throws IOException {
+        TreeMap<Long, Path> files = new TreeMap<>();
+        try (Stream<Path> paths = Files.list(directory)) {
+            for (Path path : paths.toList()) {
+                String name = path.getFileName().toString();
+                if (name.startsWith(prefix) && name.endsWith(suffix)) {
+                    try {
+                        files.put(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())), path);
+                    } catch (NumberFormatException ignored) {
+                        // Not one of ours
+                    }
+                }
+            }
+        }
+        return files;
+    }
+
+    private static void putUuid(ByteBuffer buffer, UUID uuid) {
+        buffer.putLong(uuid.getMostSignificantBits());
+        buffer.putLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID getUuid(ByteBuffer buffer) {
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    /**
+     * Rebuilds the live orders: snapshot orders are restored as objects, log records are
+     * folded into per-order images and merged on top. Orders stay OPEN until
+     * {@link #build()} so pancakes can still be attached, and get their final state last.
+     */
+    private static final class Replay {
+        private final Map<UUID, Order> orders = new LinkedHashMap<>();
+        private final Map<UUID, OrderState> states = new HashMap<>();
+        private final Map<UUID, OrderImage> images = new LinkedHashMap<>();
+        private final Map<UUID, PancakeImage> pancakes = new HashMap<>();
+
+        void restore(Order order, OrderState state) {
+            orders.put(order.getId(), order);
+            if (state != OrderState.OPEN) {
+                states.put(order.getId(), state);
+            }
+        }
+
+        void apply(ByteBuffer payload) {
+            byte type = payload.get();
+            UUID orderId = getUuid(payload);
+            OrderImage order = images.computeIfAbsent(orderId, id -> new OrderImage());
+            switch (type) {
+                case CREATE_ORDER -> {
+                    order.created = true;
+                    order.building = payload.getInt();
+                    order.room = payload.getInt();
+                }
+                case CHANGE_STATE -> order.state = later(order.state, STATES[payload.get()]);
+                case REMOVE_ORDER -> order.removed = true;
+                case ADD_PANCAKE -> pancake(order, getUuid(payload)).added = true;
+                case REMOVE_PANCAKE -> pancake(order, getUuid(payload)).removed = true;
+                case ADD_INGREDIENT -> {
+                    PancakeImage pancake = pancake(order, getUuid(payload));
+                    UUID ingredientId = getUuid(payload);
+                    byte[] name = new byte[payload.getInt()];
+                    payload.get(name);
+                    pancake.ingredients.add(new Ingredient(ingredientId, new String(name, StandardCharsets.UTF_8)));
+                }
+                case REMOVE_INGREDIENT -> pancake(order, getUuid(payload)).removedIngredients().add(getUuid(payload));
+                default -> throw new IllegalStateException("Unknown write-ahead log record type " + type);
+            }
+        }
+
+        private PancakeImage pancake(OrderImage order, UUID pancakeId) {
+            order.pancakes.add(pancakeId);
+            return pancakes.computeIfAbsent(pancakeId, id -> new PancakeImage());
+        }
+
+        List<Order> build() {
+            for (Map.Entry<UUID, OrderImage> entry : images.entrySet()) {
+                UUID orderId = entry.getKey();
+                OrderImage image = entry.getValue();
+                if (image.removed) {
+                    orders.remove(orderId);
+                    continue;
+                }
+                Order order = orders.get(orderId);
+                if (order == null) {
+                    if (!image.created) {
+                        continue;
+                    }
+                    order = new Order(orderId, image.building, image.room);
+                    orders.put(orderId, order);
+                }
+                for (UUID pancakeId : image.pancakes) {
+                    merge(order, pancakeId, pancakes.get(pancakeId));
+                }
+                states.merge(orderId, image.state, OrderWriteAheadLog::later);
+            }
+            List<Order> live = new ArrayList<>(orders.values());
+            for (Order order : live) {
+                OrderState state = states.get(order.getId());
+                if (state != null) {
+                    order.compareAndSetState(OrderState.OPEN, state);
+                }
+            }
+            return live;
+        }
+
+        private static void merge(Order order, UUID pancakeId, PancakeImage image) {
+            Pancake pancake = order.getPancake(pancakeId).orElse(null);
+            if (image.removed) {
+                if (pancake != null) {
+                    order.removePancake(pancakeId);
+                }
+                return;
+            }
+            boolean existing = pancake != null;
+            if (!existing) {
+                if (!image.added) {
+                    return;
+                }
+                pancake = new Pancake(pancakeId);
+                order.addPancake(pancake);
+            }
+            Set<UUID> present = new HashSet<>();
+            if (existing) {
+                pancake.ingredients().forEach(ingredient -> present.add(ingredient.getId()));
+            }
+            for (Ingredient ingredient : image.ingredients) {
+                if (present.add(ingredient.getId())
+                        && (image.removedIngredients == null || !image.removedIngredients.contains(ingredient.getId()))) {
+                    pancake.addIngredient(ingredient);
+                }
+            }
+            if (existing && image.removedIngredients != null) {
+                image.removedIngredients.forEach(pancake::removeIngredient);
+            }
+        }
+    }
+
+    private static OrderState later(OrderState a, OrderState b) {
+        // Declaration order is the lifecycle order, and CANCELLED is terminal
+        return b.ordinal() > a.ordinal() ? b : a;
+    }
+
+    private static final class OrderImage {
+        // Every pancake a record mentioned, in first-mention order
+        private final Set<UUID> pancakes = new LinkedHashSet<>();
+        private boolean created;
+        private boolean removed;
+        private int building;
+        private int room;
+        private OrderState state = OrderState.OPEN;
+    }
+
+    private static final class PancakeImage {
+        private final List<Ingredient> ingredients = new ArrayList<>();
+        private Set<UUID> removedIngredients;
+        private boolean added;
+        private boolean removed;
+
+        Set<UUID> removedIngredients() {
+            if (removedIngredients == null) {
+                removedIngredients = new HashSet<>();
+            }
+            return removedIngredients;
+        }
+    }
+}
@@ -14,9 +14,15 @@ import java.util.UUID;
 
 public class PancakeServiceImpl implements PancakeService {
     private final OrderService orderService;
+    private final OrderWriteAheadLog wal;
 
     public PancakeServiceImpl(OrderService orderService) {
+        this(orderService, null);
+    }
+
+    public PancakeServiceImpl(OrderService orderService, OrderWriteAheadLog wal) {
         this.orderService = orderService;
+        this.wal = wal;
     }
 
     @Override
@@ -30,6 +36,9 @@ public class PancakeServiceImpl implements PancakeService {
 
         Pancake pancake = new Pancake();
         order.addPancake(pancake);
+        if (wal != null) {
+            wal.pancakeAdded(orderId, pancake.getId());
+        }
 
         // Log pancake creation
         OrderLogServiceImpl.logAddPancake(order);
@@ -63,6 +72,9 @@ public class PancakeServiceImpl implements PancakeService {
                 .orElseThrow(() -> new IllegalArgumentException("Pancake not found"));
 
         pancake.addIngredient(ingredient);
+        if (wal != null) {
+            wal.ingredientAdded(orderId, pancakeId, ingredient);
+        }
 
         // Log ingredient addition
         OrderLogServiceImpl.logAddIngredient(order, pancake, ingredient);
@@ -86,6 +98,9 @@ public class PancakeServiceImpl implements PancakeService {
         OrderLogServiceImpl.logRemoveIngredient(order, pancake, ingredientId);
 
         pancake.removeIngredient(ingredientId);
+        if (wal != null) {
+            wal.ingredientRemoved(orderId, pancakeId, ingredientId);
+        }
     }
 
     @Override
@@ -101,5 +116,8 @@ public class PancakeServiceImpl implements PancakeService {
         OrderLogServiceImpl.logRemovePancake(order, pancakeId);
 
         order.removePancake(pancakeId);
+        if (wal != null) {
+            wal.pancakeRemoved(orderId, pancakeId);
+        }
     }
 }
@@ -0,0 +1,189 @@
+package org.pancakelab.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * Log handler that takes formatting and I/O off the request threads. Records go into a
+ * bounded {@link LogRecordQueue}; a daemon thread drains them in batches, formats each
+ * batch into one buffer and writes and flushes it with a single call, so a slow console
+ * or pipe limits log throughput instead of request latency.
+ * <p>
+ * When the queue is full the {@link OverflowPolicy} decides what gives. Every record that
+ * is discarded is counted in {@link #getDroppedRecords()}.
+ */
+public class AsyncLogHandler extends Handler {
+    private static final int BATCH_SIZE = 256;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    /**
+     * What a request thread does when the queue is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Wait for the drain thread to make room; nothing is lost.
+         */
+        BLOCK,
+        /**
+         * Discard records below WARN (debug output and per-request info lines); warnings
+         * and errors wait for room.
+         */
+        DROP_DEBUG,
+        /**
+         * Discard the oldest queued record to make room for the new one.
+         */
+        DROP_OLDEST;
+
+        /**
+         * Resolves a policy by its configuration name: {@code block}, {@code drop-debug}
+         * or {@code drop-oldest}.
+         */
+        public static OverflowPolicy fromName(String name) {
+            return valueOf(name.trim().toUpperCase().replace('-', '_'));
+        }
+    }
+
+    private final LogRecordQueue queue;
+    private final OverflowPolicy overflowPolicy;
+    private final OutputStream out;
+    private final AtomicLong droppedRecords = new AtomicLong();
+    // Records accepted into the queue, and records written or evicted from it since
+    private final AtomicLong queuedRecords = new AtomicLong();
+    private final AtomicLong retiredRecords = new AtomicLong();
+    private final Thread drainThread;
+    private final StringBuilder batch = new StringBuilder(BATCH_SIZE * 128);
+    private volatile boolean running = true;
+    private volatile boolean draining = true;
+
+    public AsyncLogHandler(OutputStream out, int capacity, OverflowPolicy overflowPolicy) {
+        this.queue = new LogRecordQueue(capacity);
+        this.overflowPolicy = overflowPolicy;
+        this.out = out;
+        this.drainThread = new Thread(this::drain, "PancakeLogWriter");
+        this.drainThread.setDaemon(true);
+        this.drainThread.start();
+    }
+
+    /**
+     * Records discarded because the queue was full.
+     */
+    public long getDroppedRecords() {
+        return droppedRecords.get();
+    }
+
+    @Override
+    public void publish(LogRecord record) {
+        if (!isLoggable(record)) {
+            return;
+        }
+        while (!queue.offer(record)) {
+            if (!running) {
+                droppedRecords.incrementAndGet();
+                return;
+            }
+            switch (overflowPolicy) {
+                case DROP_OLDEST -> {
+                    if (queue.poll() != null) {
+                        droppedRecords.incrementAndGet();
+                        retiredRecords.incrementAndGet();
+                    }
+                }
+                case DROP_DEBUG -> {
+                    if (record.getLevel().intValue() < Level.WARNING.intValue()) {
+                        droppedRecords.incrementAndGet();
+                        return;
+                    }
+                    waitForRoom();
+                }
+                case BLOCK -> waitForRoom();
+            }
+        }
+        queuedRecords.incrementAndGet();
+        if (!draining) {
+            LockSupport.unpark(drainThread);
+        }
+    }
+
+    /**
+     * Waits until every record queued before the call has been written and flushed to the
+     * stream, or evicted by {@link OverflowPolicy#DROP_OLDEST}. Returns early only if the
+     * drain thread has stopped.
+     */
+    @Override
+    public void flush() {
+        long target = queuedRecords.get();
+        while (retiredRecords.get() < target && drainThread.isAlive()) {
+            LockSupport.unpark(drainThread);
+            LockSupport.parkNanos(FULL_PARK_NANOS);
+        }
+    }
+
+    /**
+     * Writes what is still queued and stops the drain thread. Later records are dropped.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(drainThread);
+        try {
+            drainThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void waitForRoom() {
+        LockSupport.unpark(drainThread);
+        LockSupport.parkNanos(FULL_PARK_NANOS);
+    }
+
+    private void drain() {
+        while (true) {
+            boolean stopping = !running;
+            int written = writeBatch();
+            if (written == 0) {
+                if (stopping) {
+                    return;
+                }
+                draining = false;
+                if (queue.isEmpty() && running) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+                draining = true;
+            }
+        }
+    }
+
+    private int writeBatch() {
+        batch.setLength(0);
+        int count = 0;
+        LogRecord record;
+        while (count < BATCH_SIZE && (record = queue.poll()) != null) {
+            try {
+                batch.append(getFormatter().format(record));
+            } catch (RuntimeException e) {
+                reportError("Failed to format log record", e, ErrorManager.FORMAT_FAILURE);
+            }
+            count++;
+        }
+        if (batch.length() > 0) {
+            try {
+                out.write(batch.toString().getBytes(StandardCharsets.UTF_8));
+                out.flush();
+            } catch (IOException e) {
+                reportError("Failed to write log records", e, ErrorManager.WRITE_FAILURE);
+            }
+        }
+        retiredRecords.addAndGet(count);
+        return count;
+    }
+}
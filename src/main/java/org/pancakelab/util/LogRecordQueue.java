@@ -0,0 +1,82 @@
+package org.pancakelab.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.logging.LogRecord;
+
+/**
+ * Bounded lock-free queue of log records (Vyukov's array queue). Each slot carries a
+ * sequence number telling producers and consumers whether it is free or filled for their
+ * turn, so an offer or poll is one CAS on its cursor plus two ordered slot writes.
+ * Request threads offer, the drain thread polls, and producers may also poll to make
+ * room when dropping the oldest record.
+ */
+final class LogRecordQueue {
+    private final AtomicReferenceArray<LogRecord> records;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * A queue of at least {@code capacity} records, rounded up to a power of two.
+     */
+    LogRecordQueue(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30: " + capacity);
+        }
+        capacity = Math.max(2, Integer.highestOneBit(capacity - 1) << 1);
+        this.records = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Appends {@code record}, or returns false if the queue is full.
+     */
+    boolean offer(LogRecord record) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) (position & mask);
+            long diff = sequences.getAcquire(index) - position;
+            if (diff == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    records.setPlain(index, record);
+                    sequences.setRelease(index, position + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest record, or returns null if the queue is empty.
+     */
+    LogRecord poll() {
+        while (true) {
+            long position = head.get();
+            int index = (int) (position & mask);
+            long diff = sequences.getAcquire(index) - (position + 1);
+            if (diff == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    LogRecord record = records.getPlain(index);
+                    records.setPlain(index, null);
+                    sequences.setRelease(index, position + mask + 1);
+                    return record;
+                }
+            } else if (diff < 0) {
+                return null;
+            }
+        }
+    }
+
+    boolean isEmpty() {
+        return head.get() >= tail.get();
+    }
+}
@@ -1,15 +1,28 @@
 package org.pancakelab.util;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.function.Supplier;
 import java.util.logging.ConsoleHandler;
 import java.util.logging.Formatter;
+import java.util.logging.Handler;
 import java.util.logging.Level;
 import java.util.logging.LogRecord;
 
 /**
- * Centralized logger utility using Java's built-in logging framework
+ * Centralized logger utility using Java's built-in logging framework.
+ * <p>
+ * Every method checks the level before formatting, so a disabled level costs one
+ * comparison. Callers on hot paths can also guard with {@link #isInfoEnabled()} and
+ * friends to skip building the arguments, or pass a {@link Supplier}. By default records
+ * are written synchronously to the console; {@link #useAsyncHandler} moves the writing to
+ * a background thread.
  */
 public class Logger {
     private static final java.util.logging.Logger logger = java.util.logging.Logger.getLogger("PancakeLab");
+    private static volatile AsyncLogHandler asyncHandler;
 
     static {
         // Configure the logger
@@ -24,12 +37,30 @@ public class Logger {
         logger.addHandler(consoleHandler);
     }
 
+    public static boolean isDebugEnabled() {
+        return logger.isLoggable(Level.FINE);
+    }
+
+    public static boolean isInfoEnabled() {
+        return logger.isLoggable(Level.INFO);
+    }
+
+    public static boolean isWarnEnabled() {
+        return logger.isLoggable(Level.WARNING);
+    }
+
     public static void info(String message) {
         logger.info(message);
     }
 
     public static void info(String message, Object... params) {
-        logger.info(String.format(message, params));
+        if (logger.isLoggable(Level.INFO)) {
+            logger.info(String.format(message, params));
+        }
+    }
+
+    public static void info(Supplier<String> message) {
+        logger.info(message);
     }
 
     public static void warn(String message) {
@@ -37,7 +68,13 @@ public class Logger {
     }
 
     public static void warn(String message, Object... params) {
-        logger.warning(String.format(message, params));
+        if (logger.isLoggable(Level.WARNING)) {
+            logger.warning(String.format(message, params));
+        }
+    }
+
+    public static void warn(Supplier<String> message) {
+        logger.warning(message);
     }
 
     public static void error(String message) {
@@ -45,7 +82,9 @@ public class Logger {
     }
 
     public static void error(String message, Object... params) {
-        logger.severe(String.format(message, params));
+        if (logger.isLoggable(Level.SEVERE)) {
+            logger.severe(String.format(message, params));
+        }
     }
 
     public static void error(String message, Throwable throwable) {
@@ -57,25 +96,98 @@ public class Logger {
     }
 
     public static void debug(String message, Object... params) {
-        logger.fine(String.format(message, params));
+        if (logger.isLoggable(Level.FINE)) {
+            logger.fine(String.format(message, params));
+        }
+    }
+
+    public static void debug(Supplier<String> message) {
+        logger.fine(message);
     }
 
     public static void setDebugLevel() {
-        logger.setLevel(Level.FINE);
-        logger.getHandlers()[0].setLevel(Level.FINE);
+        setLevel("DEBUG");
     }
 
     /**
-     * Custom formatter for consistent log output
+     * Sets the minimum level logged: {@code DEBUG}, {@code INFO}, {@code WARN},
+     * {@code ERROR} or {@code OFF}.
+     */
+    public static void setLevel(String level) {
+        logger.setLevel(switch (level.trim().toUpperCase()) {
+            case "DEBUG" -> Level.FINE;
+            case "INFO" -> Level.INFO;
+            case "WARN", "WARNING" -> Level.WARNING;
+            case "ERROR" -> Level.SEVERE;
+            case "OFF" -> Level.OFF;
+            default -> throw new IllegalArgumentException("Unknown log level: " + level);
+        });
+    }
+
+    /**
+     * Replaces the console handler with an {@link AsyncLogHandler} writing to the current
+     * {@code System.err} through a queue of {@code capacity} records. Calling it again
+     * replaces the previous async handler after draining it.
+     */
+    public static synchronized void useAsyncHandler(int capacity, AsyncLogHandler.OverflowPolicy overflowPolicy) {
+        AsyncLogHandler handler = new AsyncLogHandler(System.err, capacity, overflowPolicy);
+        handler.setLevel(Level.ALL);
+        handler.setFormatter(new PancakeLabFormatter());
+        for (Handler existing : logger.getHandlers()) {
+            logger.removeHandler(existing);
+            existing.close();
+        }
+        logger.addHandler(handler);
+        asyncHandler = handler;
+    }
+
+    /**
+     * Records the async handler discarded because its queue was full; 0 when logging
+     * synchronously.
+     */
+    public static long getDroppedRecords() {
+        AsyncLogHandler handler = asyncHandler;
+        return handler != null ? handler.getDroppedRecords() : 0;
+    }
+
+    /**
+     * Writes out everything still queued. Call on shutdown when logging asynchronously.
+     */
+    public static void flush() {
+        for (Handler handler : logger.getHandlers()) {
+            handler.flush();
+        }
+    }
+
+    /**
+     * Custom formatter for consistent log output. Handlers call it under their own lock,
+     * so the timestamp of the current second is formatted once and reused.
      */
     private static class PancakeLabFormatter extends Formatter {
+        private static final DateTimeFormatter SECONDS = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+        private final ZoneId zone = ZoneId.systemDefault();
+        private final StringBuilder line = new StringBuilder(256);
+        private long cachedSecond = Long.MIN_VALUE;
+        private String cachedPrefix;
+
         @Override
         public String format(LogRecord record) {
-            return String.format("[%s] %s - %s: %s%n",
-                    java.time.LocalDateTime.now(),
-                    record.getLevel(),
-                    record.getLoggerName(),
-                    record.getMessage());
+            Instant time = record.getInstant();
+            if (time.getEpochSecond() != cachedSecond) {
+                cachedSecond = time.getEpochSecond();
+                cachedPrefix = SECONDS.format(LocalDateTime.ofInstant(time, zone));
+            }
+            int millis = time.getNano() / 1_000_000;
+            line.setLength(0);
+            line.append('[').append(cachedPrefix).append('.')
+                    .append((char) ('0' + millis / 100))
+                    .append((char) ('0' + millis / 10 % 10))
+                    .append((char) ('0' + millis % 10))
+                    .append("] ").append(record.getLevel().getName())
+                    .append(" - ").append(record.getLoggerName())
+                    .append(": ").append(record.getMessage())
+                    .append(System.lineSeparator());
+            return line.toString();
         }
     }
 }
@@ -0,0 +1,103 @@
+package org.pancakelab.http;
+
+import org.junit.jupiter.api.Test;
+import org.pancakelab.metrics.MetricsRegistry;
+import org.pancakelab.service.ServiceFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ApiHandlerTest {
+    private static final Pattern ORDER_ID = Pattern.compile("\"orderId\":\\s*\"([0-9a-f-]+)\"");
+    private final ApiHandler handler = new ApiHandler(new ServiceFactory());
+
+    @Test
+    void whenListingOrders_thenEachCallSpendsItsRouteCost() throws IOException {
+        // 60 reads per window at 2 per page
+        for (int i = 0; i < 30; i++) {
+            assertEquals(200, send("GET", "/api/orders", "10.1.0.1"));
+        }
+        assertEquals(429, send("GET", "/api/orders", "10.1.0.1"));
+        assertEquals(200, send("GET", "/api/orders", "10.1.0.2"));
+    }
+
+    @Test
+    void whenReadBudgetIsSpent_thenMutationsAreStillAdmitted() throws IOException {
+        while (send("GET", "/api/orders", "10.2.0.1") != 429) {
+            // Drain the read budget
+        }
+
+        StubHttpExchange create = new StubHttpExchange("POST", "/api/orders", "{\"building\": 1, \"room\": 2}")
+                .withRemoteAddress("10.2.0.1");
+        handler.handle(create);
+
+        assertEquals(201, create.getResponseCode());
+        assertEquals(429, send("GET", "/api/orders/00000000-0000-0000-0000-000000000000", "10.2.0.1"));
+    }
+
+    @Test
+    void whenPagingThroughOrders_thenEveryOrderIsListedOnceInIdOrder() throws IOException {
+        ServiceFactory services = new ServiceFactory();
+        ApiHandler pagedHandler = new ApiHandler(services);
+        List<String> created = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            created.add(services.getOrderService().createOrder(1, i).getId().toString());
+        }
+        services.getOrderService().cancelOrder(UUID.fromString(created.remove(7)));
+        Collections.sort(created, Comparator.comparing(UUID::fromString));
+
+        List<String> listed = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            StubHttpExchange exchange = new StubHttpExchange("GET",
+                    "/api/orders?limit=10" + (cursor != null ? "&cursor=" + cursor : ""))
+                    .withRemoteAddress("10.3.0." + pages++);
+            pagedHandler.handle(exchange);
+            assertEquals(200, exchange.getResponseCode());
+            Matcher ids = ORDER_ID.matcher(exchange.getResponseBodyAsString());
+            while (ids.find()) {
+                listed.add(ids.group(1));
+            }
+            cursor = exchange.getResponseHeaders().getFirst("X-Next-Cursor");
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(created, listed);
+        assertEquals(400, send("GET", "/api/orders?limit=0", "10.3.1.1"));
+        assertEquals(400, send("GET", "/api/orders?cursor=not-a-uuid", "10.3.1.2"));
+    }
+
+    @Test
+    void whenRequestsAreHandled_thenRouteMetricsRecordStatusLatencyAndRejections() throws IOException {
+        MetricsRegistry metrics = new MetricsRegistry();
+        ApiHandler meteredHandler = new ApiHandler(new ServiceFactory(), metrics);
+        for (int i = 0; i < 31; i++) {
+            StubHttpExchange exchange = new StubHttpExchange("GET", "/api/orders").withRemoteAddress("10.4.0.1");
+            meteredHandler.handle(exchange);
+        }
+        meteredHandler.handle(new StubHttpExchange("GET", "/api/nothing").withRemoteAddress("10.4.0.2"));
+
+        String text = metrics.scrape();
+
+        assertTrue(text.contains("pancakelab_http_requests_total{route=\"GET /api/orders\",status=\"200\"} 30\n"), text);
+        assertTrue(text.contains("pancakelab_http_requests_total{route=\"GET /api/orders\",status=\"429\"} 1\n"), text);
+        assertTrue(text.contains("pancakelab_http_rate_limited_total{route=\"GET /api/orders\"} 1\n"), text);
+        assertTrue(text.contains("pancakelab_http_request_duration_seconds_count{route=\"GET /api/orders\"} 31\n"), text);
+        assertTrue(text.contains("pancakelab_http_requests_total{route=\"unmatched\",status=\"404\"} 1\n"), text);
+    }
+
+    private int send(String method, String uri, String clientIp) throws IOException {
+        StubHttpExchange exchange = new StubHttpExchange(method, uri).withRemoteAddress(clientIp);
+        handler.handle(exchange);
+        return exchange.getResponseCode();
+    }
+}
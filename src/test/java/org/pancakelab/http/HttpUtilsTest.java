@@ -0,0 +1,69 @@
+package org.pancakelab.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HttpUtilsTest {
+
+    @Test
+    void whenArrayIsSmall_thenItIsSentWithContentLength() throws IOException {
+        StubHttpExchange exchange = new StubHttpExchange("GET", "/api/orders");
+
+        HttpUtils.sendJsonArray(exchange, 200, List.of(1, 2, 3), i -> "item-" + i);
+
+        assertEquals(200, exchange.getResponseCode());
+        assertEquals("[\"item-1\",\"item-2\",\"item-3\"]", exchange.getResponseBodyAsString());
+        assertEquals(exchange.getResponseBodyAsString().length(), exchange.getResponseLength());
+    }
+
+    @Test
+    void whenArrayIsLarge_thenItIsStreamedChunked() throws IOException {
+        StubHttpExchange exchange = new StubHttpExchange("GET", "/api/orders");
+        List<Integer> items = IntStream.range(0, 20_000).boxed().toList();
+
+        HttpUtils.sendJsonArray(exchange, 200, items, i -> new Item(i, "pancake " + i));
+
+        assertEquals(0, exchange.getResponseLength());
+        List<Item> parsed = JsonUtil.fromJson("{\"items\":" + exchange.getResponseBodyAsString() + "}", Items.class).items();
+        assertEquals(items.size(), parsed.size());
+        assertEquals(new Item(19_999, "pancake 19999"), parsed.get(19_999));
+    }
+
+    @Test
+    void whenConversionFailsBeforeFirstFlush_thenCallerCanStillSendAnError() {
+        StubHttpExchange exchange = new StubHttpExchange("GET", "/api/orders");
+
+        assertThrows(IllegalStateException.class, () -> HttpUtils.sendJsonArray(exchange, 200, List.of(1),
+                i -> {
+                    throw new IllegalStateException("boom");
+                }));
+        assertEquals(-1, exchange.getResponseCode());
+    }
+
+    @Test
+    void whenConversionFailsMidStream_thenExchangeIsClosed() throws IOException {
+        StubHttpExchange exchange = new StubHttpExchange("GET", "/api/orders");
+        List<Integer> items = IntStream.range(0, 20_000).boxed().toList();
+
+        HttpUtils.sendJsonArray(exchange, 200, items, i -> {
+            if (i == 15_000) {
+                throw new IllegalStateException("boom");
+            }
+            return new Item(i, "pancake " + i);
+        });
+
+        assertEquals(200, exchange.getResponseCode());
+        assertTrue(exchange.isClosed());
+    }
+
+    public record Item(int id, String name) {
+    }
+
+    public record Items(List<Item> items) {
+    }
+}
@@ -0,0 +1,91 @@
+package org.pancakelab.http;
+
+import org.junit.jupiter.api.Test;
+import org.pancakelab.http.dto.CreateOrderRequest;
+import org.pancakelab.http.dto.IngredientRequest;
+import org.pancakelab.http.dto.IngredientResponse;
+import org.pancakelab.http.dto.OrderResponse;
+import org.pancakelab.http.dto.PancakeResponse;
+import org.pancakelab.model.OrderState;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonUtilTest {
+
+    @Test
+    void whenParsingRequestBody_thenRecordIsBoundFromStream() {
+        StubHttpExchange exchange = new StubHttpExchange("POST", "/api/orders", """
+                {
+                    "building": 10,
+                    "room": "20",
+                    "comment": {"nested": [1, 2, {"x": null}]}
+                }""");
+
+        CreateOrderRequest request = JsonUtil.fromJson(exchange, CreateOrderRequest.class);
+
+        assertEquals(new CreateOrderRequest(10, 20), request);
+    }
+
+    @Test
+    void whenStringHasEscapesAndUnicode_thenItIsDecoded() {
+        String json = "{\"name\":\"dark \\\"choc\\\" \\u00e9\\n\\\\ crème 🥞\"}";
+
+        IngredientRequest request = JsonUtil.deserialize(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), IngredientRequest.class);
+
+        assertEquals("dark \"choc\" é\n\\ crème 🥞", request.name());
+    }
+
+    @Test
+    void whenParsingNestedResponse_thenListsOfRecordsAreBound() {
+        UUID orderId = UUID.randomUUID();
+        UUID pancakeId = UUID.randomUUID();
+        UUID ingredientId = UUID.randomUUID();
+        String json = """
+                {"orderId":"%s","building":1,"room":2,"state":"COMPLETED",
+                 "pancakes":[{"id":"%s","ingredients":[{"id":"%s","name":"Berries"}]}]}"""
+                .formatted(orderId, pancakeId, ingredientId);
+
+        OrderResponse order = JsonUtil.fromJson(json, OrderResponse.class);
+
+        assertEquals(orderId, order.orderId());
+        assertEquals(OrderState.COMPLETED, order.state());
+        assertEquals(pancakeId, order.pancakes().get(0).id());
+        assertEquals("Berries", order.pancakes().get(0).ingredients().get(0).name());
+    }
+
+    @Test
+    void whenSerializingResponse_thenOutputIsEscapedAndRoundTrips() {
+        UUID orderId = UUID.randomUUID();
+        OrderResponse order = new OrderResponse(orderId, 3, 4, OrderState.OPEN, List.of(
+                new PancakeResponse(UUID.randomUUID(), List.of(
+                        new IngredientResponse(UUID.randomUUID(), "\"quoted\" crème\n")))));
+
+        String json = JsonUtil.toJson(order);
+
+        assertTrue(json.startsWith("{\"orderId\":\"" + orderId + "\",\"building\":3,\"room\":4,\"state\":\"OPEN\""), json);
+        assertTrue(json.contains("\\\"quoted\\\" crème\\n"), json);
+        assertEquals(order, JsonUtil.fromJson(json, OrderResponse.class));
+    }
+
+    @Test
+    void whenSerializingPlainObject_thenNullFieldsAreOmitted() {
+        String json = JsonUtil.toJson(new HttpUtils.ErrorResponse(404, null));
+
+        assertTrue(json.startsWith("{\"status\":404,\"timestamp\":"), json);
+        assertFalse(json.contains("error"), json);
+    }
+
+    @Test
+    void whenJsonIsMalformed_thenParsingFails() {
+        assertThrows(RuntimeException.class, () -> JsonUtil.fromJson("{\"building\": 1", CreateOrderRequest.class));
+        assertThrows(RuntimeException.class, () -> JsonUtil.fromJson("{\"name\": \"x\"} trailing", IngredientRequest.class));
+        assertThrows(RuntimeException.class, () -> JsonUtil.fromJson("{\"name\": \"bad\\q\"}", IngredientRequest.class));
+        assertThrows(RuntimeException.class, () -> JsonUtil.fromJson("{\"building\": 1.5}", CreateOrderRequest.class));
+    }
+}
@@ -243,4 +243,20 @@ public class PancakeApiTest {
         response = client.send(request, HttpResponse.BodyHandlers.ofString());
         assertEquals(404, response.statusCode());
     }
+
+    @Test
+    @Order(7)
+    void testMetrics() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/metrics"))
+                .GET()
+                .build();
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue("Content-Type").orElse("").startsWith("text/plain"));
+        assertTrue(response.body().contains("pancakelab_http_requests_total{route=\"POST /api/orders\",status=\"201\"}"));
+        assertTrue(response.body().contains("# TYPE pancakelab_http_timeouts_total counter"));
+    }
 }
@@ -0,0 +1,236 @@
+package org.pancakelab.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimiterTest {
+    private final AtomicLong clock = new AtomicLong(1_000);
+
+    @Test
+    void whenClientExceedsLimit_thenRequestsAreRejectedUntilTheWindowExpires() {
+        RateLimiter limiter = fixedWindow(3, 1000, 100, clock::get);
+
+        assertTrue(limiter.allowRequest("10.0.0.1"));
+        assertTrue(limiter.allowRequest("10.0.0.1"));
+        assertTrue(limiter.allowRequest("10.0.0.1"));
+        assertFalse(limiter.allowRequest("10.0.0.1"));
+        assertTrue(limiter.allowRequest("10.0.0.2"));
+
+        clock.addAndGet(1000);
+        assertTrue(limiter.allowRequest("10.0.0.1"));
+    }
+
+    @Test
+    void whenMillionDistinctClientsArrive_thenTrackedClientsStayBounded() {
+        int maxClients = 10_000;
+        RateLimiter limiter = fixedWindow(5, 60_000, maxClients, clock::get);
+        Runtime runtime = Runtime.getRuntime();
+        long usedBefore = usedHeapAfterGc(runtime);
+
+        for (int i = 0; i < 1_000_000; i++) {
+            String ip = "10." + (i >>> 16) + "." + ((i >>> 8) & 0xFF) + "." + (i & 0xFF);
+            assertTrue(limiter.allowRequest(ip));
+            assertTrue(limiter.trackedClients() <= maxClients, "tracked " + limiter.trackedClients());
+            if (i % 1000 == 0) {
+                clock.incrementAndGet();
+            }
+        }
+
+        // 10k windows with their keys take a few MB; a million would take well over 100 MB
+        long retained = usedHeapAfterGc(runtime) - usedBefore;
+        assertTrue(retained < 32 * 1024 * 1024, "retained " + retained + " bytes");
+        assertTrue(limiter.trackedClients() <= maxClients);
+    }
+
+    @Test
+    void whenAtCapacity_thenThrottledClientsAreKeptOverWellBehavedOnes() {
+        RateLimiter limiter = fixedWindow(2, 60_000, 4, clock::get);
+        for (int i = 0; i < 3; i++) {
+            limiter.allowRequest("10.0.0.1");
+        }
+        assertFalse(limiter.allowRequest("10.0.0.1"));
+
+        for (int i = 2; i < 100; i++) {
+            assertTrue(limiter.allowRequest("10.0.0." + i));
+        }
+
+        assertFalse(limiter.allowRequest("10.0.0.1"));
+    }
+
+    @Test
+    void whenStateIsSweptDuringItsUpdate_thenTheRequestCountsOnTheLiveState() {
+        RateLimitPolicy fixed = new FixedWindowPolicy(1, 60_000);
+        RateLimiter[] limiter = new RateLimiter[1];
+        AtomicBoolean sweepEverything = new AtomicBoolean();
+        RateLimitPolicy racing = new RateLimitPolicy() {
+            @Override
+            public long initialState(long now) {
+                return fixed.initialState(now);
+            }
+
+            @Override
+            public boolean tryAcquire(AtomicLong state, long now, int permits) {
+                if (!sweepEverything.get() && clock.get() == 1_000) {
+                    // Another client's request sweeps 10.0.0.1 away between its lookup and its CAS
+                    sweepEverything.set(true);
+                    clock.set(2_000);
+                    limiter[0].allowRequest("10.0.0.2");
+                    sweepEverything.set(false);
+                }
+                return fixed.tryAcquire(state, now, permits);
+            }
+
+            @Override
+            public boolean isIdle(long state, long now) {
+                return sweepEverything.get() || fixed.isIdle(state, now);
+            }
+
+            @Override
+            public boolean isThrottled(long state, long now) {
+                return fixed.isThrottled(state, now);
+            }
+        };
+        limiter[0] = new RateLimiter(racing, 1_000, 100, clock::get);
+
+        assertTrue(limiter[0].allowRequest("10.0.0.1"));
+
+        assertFalse(limiter[0].allowRequest("10.0.0.1"));
+    }
+
+    @Test
+    void whenWindowsExpire_thenTheySweepAway() {
+        RateLimiter limiter = fixedWindow(5, 1000, 100_000, clock::get);
+        for (int i = 0; i < 1000; i++) {
+            limiter.allowRequest("10.0.1." + i);
+        }
+        assertEquals(1000, limiter.trackedClients());
+
+        clock.addAndGet(1000);
+        limiter.allowRequest("10.0.2.1");
+
+        assertEquals(1, limiter.trackedClients());
+    }
+
+    @Test
+    void whenKnownClientIsChecked_thenNothingIsAllocated() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        RateLimiter limiter = fixedWindow(1_000, 60_000, 100, () -> System.nanoTime() / 1_000_000);
+        String ip = "10.0.0.1";
+        for (int i = 0; i < 200_000; i++) {
+            limiter.allowRequest(ip);
+        }
+
+        long before = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        for (int i = 0; i < 100_000; i++) {
+            limiter.allowRequest(ip);
+        }
+        long allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - before;
+
+        assertTrue(allocated < 10_000, "allocated " + allocated + " bytes for 100000 requests");
+    }
+
+    @Test
+    void whenBurstingAcrossWindowBoundary_thenOnlyFixedWindowAdmitsTwiceTheLimit() {
+        assertEquals(2 * 100 - 1, admittedAroundBoundary(RateLimitAlgorithm.FIXED_WINDOW));
+        assertTrue(admittedAroundBoundary(RateLimitAlgorithm.SLIDING_WINDOW) <= 100 + 1);
+        // A full bucket plus the 20 ms of refill between the bursts
+        assertTrue(admittedAroundBoundary(RateLimitAlgorithm.TOKEN_BUCKET) <= 100 + 2);
+    }
+
+    @Test
+    void whenTokenBucketIsEmpty_thenItRefillsAtTheConfiguredRate() {
+        RateLimiter limiter = new RateLimiter(RateLimiter.policy(RateLimitAlgorithm.TOKEN_BUCKET, 0, 1000, 10, 5),
+                1000, 100, clock::get);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.allowRequest("10.0.0.1"));
+        }
+        assertFalse(limiter.allowRequest("10.0.0.1"));
+
+        clock.addAndGet(1000);
+        int admitted = 0;
+        while (limiter.allowRequest("10.0.0.1")) {
+            admitted++;
+        }
+
+        assertEquals(5, admitted);
+    }
+
+    @Test
+    void whenSlidingWindowRolls_thenThePreviousWindowFadesOut() {
+        RateLimiter limiter = new RateLimiter(RateLimiter.policy(RateLimitAlgorithm.SLIDING_WINDOW, 10, 1000, 0, 0),
+                1000, 100, clock::get);
+        clock.set(2000);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.allowRequest("10.0.0.1"));
+        }
+        assertFalse(limiter.allowRequest("10.0.0.1"));
+
+        // Halfway through the next window half of the previous count still weighs in
+        clock.set(3500);
+        int admitted = 0;
+        while (limiter.allowRequest("10.0.0.1")) {
+            admitted++;
+        }
+        assertEquals(5, admitted);
+
+        clock.set(5000);
+        assertTrue(limiter.allowRequest("10.0.0.1"));
+    }
+
+    @Test
+    void whenSlidingWindowSeesAStaleTime_thenTheNewerWindowIsKept() {
+        RateLimiter limiter = new RateLimiter(RateLimiter.policy(RateLimitAlgorithm.SLIDING_WINDOW, 10, 1000, 0, 0),
+                1000, 100, clock::get);
+        clock.set(2000);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.allowRequest("10.0.0.1"));
+        }
+        clock.set(3100);
+        assertTrue(limiter.allowRequest("10.0.0.1"));
+        assertFalse(limiter.allowRequest("10.0.0.1"));
+
+        // A request whose time was read just before the state rolled into the next window
+        clock.set(2990);
+        assertFalse(limiter.allowRequest("10.0.0.1"));
+
+        clock.set(3100);
+        assertFalse(limiter.allowRequest("10.0.0.1"));
+    }
+
+    /**
+     * One request at the start of a window, then as many as admitted 10 ms before and 10 ms
+     * after the boundary: the fixed window lets both bursts through.
+     */
+    private int admittedAroundBoundary(RateLimitAlgorithm algorithm) {
+        clock.set(10_000);
+        RateLimiter limiter = new RateLimiter(RateLimiter.policy(algorithm, 100, 1000, 100, 100),
+                1000, 100, clock::get);
+        assertTrue(limiter.allowRequest("10.0.0.1"));
+        int admitted = 0;
+        clock.set(10_990);
+        for (int i = 0; i < 200; i++) {
+            admitted += limiter.allowRequest("10.0.0.1") ? 1 : 0;
+        }
+        clock.set(11_010);
+        for (int i = 0; i < 200; i++) {
+            admitted += limiter.allowRequest("10.0.0.1") ? 1 : 0;
+        }
+        return admitted;
+    }
+
+    private static RateLimiter fixedWindow(int maxRequests, long windowMs, int maxClients, LongSupplier clock) {
+        return new RateLimiter(new FixedWindowPolicy(maxRequests, windowMs), windowMs, maxClients, clock);
+    }
+
+    private static long usedHeapAfterGc(Runtime runtime) {
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,73 @@
+package org.pancakelab.http;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RouterTest {
+    private Router router;
+    private String matched;
+    private Map<String, String> params;
+
+    @BeforeEach
+    void setUp() {
+        router = new Router();
+        register("GET", "/api/orders");
+        register("GET", "/api/orders/{orderId}");
+        register("GET", "/api/orders/summary");
+        register("POST", "/api/orders/{orderId}/complete");
+        register("DELETE", "/api/orders/{orderId}/pancakes/{pancakeId}/ingredients/{ingredientId}");
+    }
+
+    private void register(String method, String pattern) {
+        router.addRoute(method, pattern, (exchange, pathParams) -> {
+            matched = method + " " + pattern;
+            params = new HashMap<>(pathParams);
+        });
+    }
+
+    private boolean dispatch(String method, String path) throws Exception {
+        matched = null;
+        params = null;
+        return router.handleRequest(new StubHttpExchange(method, path));
+    }
+
+    @Test
+    void whenPathHasParameters_thenAllAreExtracted() throws Exception {
+        assertTrue(dispatch("DELETE", "/api/orders/o1/pancakes/p2/ingredients/i3"));
+        assertEquals("DELETE /api/orders/{orderId}/pancakes/{pancakeId}/ingredients/{ingredientId}", matched);
+        assertEquals(Map.of("orderId", "o1", "pancakeId", "p2", "ingredientId", "i3"), params);
+    }
+
+    @Test
+    void whenLiteralAndParameterBothMatch_thenLiteralWins() throws Exception {
+        assertTrue(dispatch("GET", "/api/orders/summary"));
+        assertEquals("GET /api/orders/summary", matched);
+        assertTrue(params.isEmpty());
+
+        assertTrue(dispatch("GET", "/api/orders/abc"));
+        assertEquals("GET /api/orders/{orderId}", matched);
+        assertEquals("abc", params.get("orderId"));
+    }
+
+    @Test
+    void whenLiteralBranchDeadEnds_thenParameterBranchIsTried() throws Exception {
+        assertTrue(dispatch("POST", "/api/orders/summary/complete"));
+        assertEquals("POST /api/orders/{orderId}/complete", matched);
+        assertEquals("summary", params.get("orderId"));
+    }
+
+    @Test
+    void whenNothingMatches_thenRequestIsNotHandled() throws Exception {
+        assertFalse(dispatch("PUT", "/api/orders"));
+        assertFalse(dispatch("GET", "/api/orders/"));
+        assertFalse(dispatch("GET", "/api/orders//"));
+        assertFalse(dispatch("GET", "/api/orders/abc/extra"));
+        assertFalse(dispatch("POST", "/api/orders/abc"));
+        assertNull(matched);
+    }
+}
@@ -0,0 +1,119 @@
+package org.pancakelab.http;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimeoutHandlerTest {
+    private TimeoutHandler timeoutHandler;
+
+    @AfterEach
+    void tearDown() {
+        if (timeoutHandler != null) {
+            timeoutHandler.shutdown();
+        }
+    }
+
+    @Test
+    void whenHandlerIsFast_thenItRunsOnCallingThreadAndResponds() throws Exception {
+        AtomicReference<Thread> handlerThread = new AtomicReference<>();
+        timeoutHandler = new TimeoutHandler(exchange -> {
+            handlerThread.set(Thread.currentThread());
+            HttpUtils.sendJson(exchange, 200, "ok");
+        }, 1000);
+
+        StubHttpExchange exchange = new StubHttpExchange("GET", "/api/orders");
+        timeoutHandler.handle(exchange);
+
+        assertSame(Thread.currentThread(), handlerThread.get());
+        assertEquals(200, exchange.getResponseCode());
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    @Test
+    void whenHandlerExceedsDeadline_thenRequestTimeoutIsSentAndLateResponseIsRejected() throws Exception {
+        CountDownLatch neverReleased = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        AtomicReference<IOException> lateResponseFailure = new AtomicReference<>();
+        timeoutHandler = new TimeoutHandler(exchange -> {
+            try {
+                neverReleased.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+            }
+            try {
+                HttpUtils.sendJson(exchange, 200, "too late");
+            } catch (IOException e) {
+                lateResponseFailure.set(e);
+            }
+        }, 50);
+
+        StubHttpExchange exchange = new StubHttpExchange("GET", "/api/orders");
+        timeoutHandler.handle(exchange);
+
+        assertTrue(interrupted.get());
+        assertEquals(408, exchange.getResponseCode());
+        assertTrue(exchange.getResponseBodyAsString().contains("Request timeout"));
+        assertNotNull(lateResponseFailure.get());
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    @Test
+    void whenAClientIsSlowToTakeItsTimeout_thenOtherDeadlinesStillFire() throws Exception {
+        CountDownLatch stalled = new CountDownLatch(1);
+        CountDownLatch releaseStalled = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        timeoutHandler = new TimeoutHandler(exchange -> {
+            try {
+                Thread.sleep(5000);
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+            }
+        }, 50);
+        // Its 408 blocks as if the client had stopped reading
+        StubHttpExchange slowClient = new StubHttpExchange("GET", "/api/orders") {
+            @Override
+            public void sendResponseHeaders(int rCode, long responseLength) {
+                super.sendResponseHeaders(rCode, responseLength);
+                stalled.countDown();
+                try {
+                    releaseStalled.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        Thread slowRequest = new Thread(() -> {
+            try {
+                timeoutHandler.handle(slowClient);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        slowRequest.start();
+        try {
+            assertTrue(stalled.await(5, TimeUnit.SECONDS));
+            interrupted.set(false);
+
+            StubHttpExchange exchange = new StubHttpExchange("GET", "/api/orders");
+            long start = System.nanoTime();
+            timeoutHandler.handle(exchange);
+
+            assertTrue(interrupted.get());
+            assertEquals(408, exchange.getResponseCode());
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+        } finally {
+            releaseStalled.countDown();
+            slowRequest.join();
+        }
+        assertEquals(408, slowClient.getResponseCode());
+    }
+}
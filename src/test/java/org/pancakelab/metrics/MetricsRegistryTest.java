@@ -0,0 +1,62 @@
+package org.pancakelab.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsRegistryTest {
+
+    @Test
+    void whenRecordingLatencies_thenPercentilesAreWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 10_000; micros++) {
+            histogram.record(micros * 1000);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(10_000, snapshot.count());
+        assertEquals(5_000_000, snapshot.percentile(0.5), 5_000_000 * 0.04);
+        assertEquals(9_900_000, snapshot.percentile(0.99), 9_900_000 * 0.04);
+        assertTrue(snapshot.percentile(1.0) >= 10_000_000);
+        assertEquals(0, new LatencyHistogram().snapshot().percentile(0.99));
+    }
+
+    @Test
+    void whenBucketingValues_thenEveryValueFallsWithinItsBucketBound() {
+        for (long value = 1; value < Long.MAX_VALUE / 3; value = value * 3 + 1) {
+            int index = LatencyHistogram.index(value);
+            assertTrue(LatencyHistogram.upperBound(index) >= value, "value " + value);
+            assertTrue(index == 0 || LatencyHistogram.upperBound(index - 1) < value, "value " + value);
+        }
+    }
+
+    @Test
+    void whenScraping_thenSeriesAreWrittenInPrometheusTextFormat() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("requests_total", "Requests.", "route", "GET /a", "status", "200").add(3);
+        registry.counter("requests_total", "Requests.", "route", "GET /a", "status", "200").increment();
+        registry.counter("timeouts_total", "Timeouts.").increment();
+        registry.histogram("duration_seconds", "Latency.", "route", "say \"hi\"").record(2_000_000);
+
+        String text = registry.scrape();
+
+        assertTrue(text.contains("# TYPE requests_total counter\n"), text);
+        assertTrue(text.contains("requests_total{route=\"GET /a\",status=\"200\"} 4\n"), text);
+        assertTrue(text.contains("timeouts_total 1\n"), text);
+        assertTrue(text.contains("# TYPE duration_seconds summary\n"), text);
+        assertTrue(text.contains("duration_seconds{route=\"say \\\"hi\\\"\",quantile=\"0.99\"} 0.00"), text);
+        assertTrue(text.contains("duration_seconds_count{route=\"say \\\"hi\\\"\"} 1\n"), text);
+        assertThrows(IllegalArgumentException.class, () -> registry.histogram("requests_total", "Requests."));
+    }
+
+    @Test
+    void whenACounterIsKeptElsewhere_thenItsCurrentValueIsScraped() {
+        MetricsRegistry registry = new MetricsRegistry();
+        long[] dropped = {2};
+        registry.counterFunction("dropped_total", "Dropped.", () -> dropped[0], "log", "audit");
+
+        assertTrue(registry.scrape().contains("# TYPE dropped_total counter\ndropped_total{log=\"audit\"} 2\n"));
+        dropped[0] = 5;
+        assertTrue(registry.scrape().contains("dropped_total{log=\"audit\"} 5\n"));
+    }
+}
@@ -0,0 +1,48 @@
+package org.pancakelab.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IngredientTest {
+
+    @Test
+    void whenNamesAreEqual_thenIngredientsShareOneInternedInstance() {
+        // Distinct String objects, as decoded from two requests
+        String first = new String("Whipped Cream".toCharArray());
+        String second = new String("Whipped Cream".toCharArray());
+
+        Ingredient a = new Ingredient(first);
+        Ingredient b = new Ingredient(second);
+
+        assertSame(a.getName(), b.getName());
+        assertSame(IngredientCatalog.intern("Whipped Cream"), a.getName());
+        assertNull(IngredientCatalog.intern(null));
+    }
+
+    @Test
+    void whenIdIsStoredAsTwoLongs_thenItSurvivesTheRoundTrip() {
+        UUID id = UUID.randomUUID();
+        UUID timeOrdered = IdGenerator.TIME_ORDERED.nextId();
+
+        Ingredient ingredient = new Ingredient(id, "Berries");
+
+        assertEquals(id, ingredient.getId());
+        assertEquals(timeOrdered, new Ingredient(timeOrdered, "Berries").getId());
+        assertTrue(ingredient.hasId(id));
+        assertFalse(ingredient.hasId(new UUID(id.getMostSignificantBits(), id.getLeastSignificantBits() + 1)));
+    }
+
+    @Test
+    void whenIdsAreEqual_thenIngredientsAreEqualAndHashLikeTheirId() {
+        UUID id = UUID.randomUUID();
+
+        Ingredient ingredient = new Ingredient(id, "Berries");
+
+        assertEquals(new Ingredient(id, "Hazelnuts"), ingredient);
+        assertNotEquals(new Ingredient(UUID.randomUUID(), "Berries"), ingredient);
+        assertEquals(id.hashCode(), ingredient.hashCode());
+    }
+}
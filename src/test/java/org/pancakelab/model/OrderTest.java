@@ -0,0 +1,108 @@
+package org.pancakelab.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderTest {
+
+    @Test
+    void whenPancakesAreAddedAndRemovedById_thenIndexAndListAgree() {
+        Order order = new Order(1, 1);
+        Pancake first = new Pancake();
+        Pancake second = new Pancake();
+        Pancake third = new Pancake();
+        order.addPancake(first);
+        order.addPancake(second);
+        order.addPancake(third);
+
+        order.removePancake(second.getId());
+
+        assertEquals(List.of(first, third), order.getPancakes());
+        assertEquals(2, order.getPancakeCount());
+        assertTrue(order.getPancake(second.getId()).isEmpty());
+        assertSame(first, order.getPancake(first.getId()).orElseThrow());
+        assertSame(third, order.getPancake(third.getId()).orElseThrow());
+
+        order.removePancake(UUID.randomUUID());
+
+        assertEquals(List.of(first, third), order.getPancakes());
+    }
+
+    @Test
+    void whenPancakesChangeAfterASnapshotIsTaken_thenTheSnapshotStaysAsItWas() {
+        Order order = new Order(1, 1);
+        Pancake kept = new Pancake();
+        Pancake removed = new Pancake();
+        order.addPancake(kept);
+        order.addPancake(removed);
+        List<Pancake> snapshot = order.getPancakes();
+
+        order.addPancake(new Pancake());
+        order.removePancake(removed.getId());
+
+        assertEquals(List.of(kept, removed), snapshot);
+        assertEquals(2, order.getPancakes().size());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.add(new Pancake()));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.set(0, new Pancake()));
+    }
+
+    @Test
+    void whenOrderIsNotOpen_thenPancakeEditsAreRejectedAndNothingChanges() {
+        Order order = new Order(1, 1);
+        Pancake pancake = new Pancake();
+        order.addPancake(pancake);
+        assertTrue(order.compareAndSetState(OrderState.OPEN, OrderState.CANCELLED));
+
+        assertThrows(IllegalStateException.class, () -> order.addPancake(new Pancake()));
+        assertThrows(IllegalStateException.class, () -> order.removePancake(pancake.getId()));
+
+        assertEquals(List.of(pancake), order.getPancakes());
+        assertSame(pancake, order.getPancake(pancake.getId()).orElseThrow());
+    }
+
+    @Test
+    void whenOrderLeavesOpenDuringPancakeEdits_thenItsPancakesNeverChangeAfterwards() throws InterruptedException {
+        for (int round = 0; round < 500; round++) {
+            Order order = new Order(1, 1);
+            Set<UUID> accepted = new HashSet<>();
+            CountDownLatch started = new CountDownLatch(1);
+            Thread editor = new Thread(() -> {
+                started.countDown();
+                try {
+                    while (true) {
+                        Pancake pancake = new Pancake();
+                        order.addPancake(pancake);
+                        accepted.add(pancake.getId());
+                        if (accepted.size() % 2 == 0) {
+                            order.removePancake(pancake.getId());
+                            accepted.remove(pancake.getId());
+                        }
+                    }
+                } catch (IllegalStateException closed) {
+                    // The order left OPEN; the rejected edit must not be visible
+                }
+            });
+            editor.start();
+            started.await();
+            for (int i = round % 8; i > 0; i--) {
+                Thread.yield();
+            }
+
+            assertTrue(order.compareAndSetState(OrderState.OPEN, OrderState.COMPLETED));
+            List<Pancake> atTransition = order.getPancakes();
+            editor.join();
+
+            assertSame(atTransition, order.getPancakes());
+            assertEquals(accepted, atTransition.stream().map(Pancake::getId).collect(Collectors.toSet()));
+            atTransition.forEach(pancake -> assertSame(pancake, order.getPancake(pancake.getId()).orElseThrow()));
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package org.pancakelab.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PancakeTest {
+
+    @Test
+    void whenIngredientsChangeAfterASnapshotIsTaken_thenTheSnapshotStaysAsItWas() {
+        Pancake pancake = new Pancake();
+        Ingredient chocolate = new Ingredient("Dark Chocolate");
+        Ingredient hazelnuts = new Ingredient("Hazelnuts");
+        pancake.addIngredient(chocolate);
+        pancake.addIngredient(hazelnuts);
+        List<Ingredient> snapshot = pancake.ingredients();
+
+        pancake.removeIngredient(chocolate.getId());
+        pancake.addIngredient(new Ingredient("Berries"));
+
+        assertEquals(List.of(chocolate, hazelnuts), snapshot);
+        assertEquals(List.of("Hazelnuts", "Berries"), pancake.ingredients().stream().map(Ingredient::getName).toList());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.remove(0));
+    }
+
+    @Test
+    void whenRemovingAnUnknownIngredient_thenTheSnapshotIsNotRepublished() {
+        Pancake pancake = new Pancake();
+        pancake.addIngredient(new Ingredient("Milk Chocolate"));
+        List<Ingredient> snapshot = pancake.ingredients();
+
+        pancake.removeIngredient(Ids.next());
+
+        assertSame(snapshot, pancake.ingredients());
+        assertEquals("Delicious pancake with Milk Chocolate!", pancake.description());
+    }
+}
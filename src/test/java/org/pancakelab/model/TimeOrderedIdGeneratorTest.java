@@ -0,0 +1,54 @@
+package org.pancakelab.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimeOrderedIdGeneratorTest {
+
+    @Test
+    void whenGenerating_thenIdsAreVersion7WithTheCurrentTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID id = IdGenerator.TIME_ORDERED.nextId();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        long millis = id.getMostSignificantBits() >>> 16;
+        assertTrue(millis >= before && millis <= System.currentTimeMillis() + 1, "timestamp " + millis);
+        assertEquals(id, UUID.fromString(id.toString()));
+    }
+
+    @Test
+    void whenGeneratingOnOneThread_thenIdsStrictlyIncrease() {
+        UUID previous = IdGenerator.TIME_ORDERED.nextId();
+        for (int i = 0; i < 100_000; i++) {
+            UUID next = IdGenerator.TIME_ORDERED.nextId();
+            assertTrue(Long.compareUnsigned(next.getMostSignificantBits(), previous.getMostSignificantBits()) > 0,
+                    previous + " then " + next);
+            previous = next;
+        }
+    }
+
+    @Test
+    void whenGeneratingOnManyThreads_thenIdsAreUnique() throws InterruptedException {
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    ids.add(IdGenerator.TIME_ORDERED.nextId());
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(threads.length * 20_000, ids.size());
+    }
+}
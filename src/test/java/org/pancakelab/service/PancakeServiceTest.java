@@ -158,6 +158,25 @@ public class PancakeServiceTest {
         assertTrue(cancelledOrder.isEmpty());
     }
 
+    @Test
+    @org.junit.jupiter.api.Order(55)
+    void whenQueryingByState_thenOnlyLiveOrdersInThatStateAreReturned() {
+        Order completed = orderService.createOrder(1, 1);
+        Order cancelled = orderService.createOrder(1, 2);
+        orderService.completeOrder(completed.getId());
+        orderService.cancelOrder(cancelled.getId());
+
+        List<Order> open = orderService.getOrdersByState(OrderState.OPEN);
+        assertTrue(open.contains(testOrder));
+        assertFalse(open.contains(completed));
+        assertFalse(open.contains(cancelled));
+        assertTrue(orderService.getOrdersByState(OrderState.COMPLETED).contains(completed));
+        assertTrue(orderService.getOrdersByState(OrderState.CANCELLED).isEmpty());
+
+        orderService.deleteOrder(completed.getId());
+        assertFalse(orderService.getOrdersByState(OrderState.COMPLETED).contains(completed));
+    }
+
     @Test
     @org.junit.jupiter.api.Order(60)
     void whenOrderIsNotOpen_thenCannotModifyPancakes() {
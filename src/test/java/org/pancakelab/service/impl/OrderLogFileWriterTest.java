@@ -0,0 +1,117 @@
+package org.pancakelab.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.pancakelab.model.OrderState;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderLogFileWriterTest {
+
+    private static void append(OrderLogRingBuffer buffer, UUID orderId) {
+        long sequence = buffer.claim();
+        buffer.publish(new OrderLogEvent(sequence, System.currentTimeMillis(), OrderLogEvent.Type.STATE_CHANGE,
+                orderId, 1, 2, null, null, null, 0, OrderState.OPEN, OrderState.COMPLETED));
+    }
+
+    private static List<String> readSegments(Path directory) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory).sorted()) {
+            for (Path file : files.toList()) {
+                lines.addAll(Files.readAllLines(file));
+            }
+        }
+        return lines;
+    }
+
+    @Test
+    void whenAClaimedEventIsNeverPublished_thenCloseStillReturns(@TempDir Path directory) throws IOException {
+        OrderLogRingBuffer buffer = new OrderLogRingBuffer(1024);
+        OrderLogFileWriter writer = new OrderLogFileWriter(buffer, directory, 4096, 1024, 10);
+        append(buffer, UUID.randomUUID());
+        buffer.claim();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), writer::close);
+        assertEquals(1, readSegments(directory).size());
+        assertEquals(1, writer.getPersistedSequence());
+    }
+
+    @Test
+    void whenTheRingLapsTheWriter_thenOverwrittenEventsAreCountedAsDropped(@TempDir Path directory) throws IOException {
+        OrderLogRingBuffer buffer = new OrderLogRingBuffer(16);
+        OrderLogFileWriter writer = new OrderLogFileWriter(buffer, directory, 1 << 20, 1 << 16, 10);
+        // Holds the writer at sequence 0 until the ring wraps over it
+        buffer.claim();
+        for (int i = 0; i < 40; i++) {
+            append(buffer, UUID.randomUUID());
+        }
+        writer.close();
+
+        // At least the unpublished event is lost; every other one is either on disk or dropped
+        assertTrue(writer.getDroppedEvents() > 0);
+        assertEquals(41, readSegments(directory).size() + writer.getDroppedEvents());
+        assertEquals(41, writer.getPersistedSequence());
+    }
+
+    @Test
+    void whenWriterIsClosed_thenEveryEventIsOnDiskInOrderAcrossSegments(@TempDir Path directory) throws IOException {
+        OrderLogRingBuffer buffer = new OrderLogRingBuffer(1024);
+        List<UUID> orderIds = new ArrayList<>();
+        OrderLogFileWriter writer = new OrderLogFileWriter(buffer, directory, 4096, 1024, 10);
+        for (int i = 0; i < 500; i++) {
+            UUID orderId = UUID.randomUUID();
+            orderIds.add(orderId);
+            append(buffer, orderId);
+        }
+        writer.close();
+
+        List<String> lines = readSegments(directory);
+        assertEquals(500, lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            assertTrue(lines.get(i).contains(orderIds.get(i).toString()), lines.get(i));
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = files.toList();
+            assertTrue(segments.size() > 1);
+            for (Path segment : segments) {
+                assertTrue(Files.size(segment) <= 4096);
+            }
+        }
+        assertEquals(500, writer.getPersistedSequence());
+        assertEquals(0, writer.getDroppedEvents());
+    }
+
+    @Test
+    void whenRestarted_thenWriterContinuesInANewSegment(@TempDir Path directory) throws IOException {
+        OrderLogRingBuffer buffer = new OrderLogRingBuffer(16);
+        new OrderLogFileWriter(buffer, directory, 1 << 20, 1 << 16, 10).close();
+        append(buffer, UUID.randomUUID());
+        new OrderLogFileWriter(buffer, directory, 1 << 20, 1 << 16, 10).close();
+
+        assertTrue(Files.exists(directory.resolve("audit-000001.log")));
+        assertTrue(Files.exists(directory.resolve("audit-000002.log")));
+        assertEquals(1, readSegments(directory).size());
+    }
+
+    @Test
+    void whenCommitBytesIsOne_thenEveryEventIsSynced(@TempDir Path directory) throws IOException {
+        OrderLogRingBuffer buffer = new OrderLogRingBuffer(64);
+        for (int i = 0; i < 20; i++) {
+            append(buffer, UUID.randomUUID());
+        }
+        OrderLogFileWriter writer = new OrderLogFileWriter(buffer, directory, 1 << 20, 1, 10);
+        writer.close();
+
+        assertEquals(20, writer.getSyncCount());
+        assertEquals(20, readSegments(directory).size());
+    }
+}
@@ -0,0 +1,83 @@
+package org.pancakelab.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.pancakelab.model.OrderState;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderLogRingBufferTest {
+
+    private static void append(OrderLogRingBuffer buffer) {
+        long sequence = buffer.claim();
+        buffer.publish(new OrderLogEvent(sequence, System.currentTimeMillis(), OrderLogEvent.Type.STATE_CHANGE,
+                UUID.randomUUID(), 1, 2, null, null, null, 0, OrderState.OPEN, OrderState.COMPLETED));
+    }
+
+    @Test
+    void whenRingWraps_thenOnlyTheNewestEventsAreRetained() {
+        OrderLogRingBuffer buffer = new OrderLogRingBuffer(8);
+        for (int i = 0; i < 20; i++) {
+            append(buffer);
+        }
+
+        OrderLogPage page = buffer.read(0, 100);
+
+        assertEquals(12, buffer.firstRetainedSequence());
+        assertEquals(8, page.events().size());
+        assertEquals(12, page.events().get(0).sequence());
+        assertEquals(19, page.events().get(7).sequence());
+        assertFalse(page.hasMore());
+        assertTrue(page.events().get(0).format().contains("state changed from OPEN to COMPLETED"));
+    }
+
+    @Test
+    void whenPaging_thenPagesAreContiguous() {
+        OrderLogRingBuffer buffer = new OrderLogRingBuffer(16);
+        for (int i = 0; i < 10; i++) {
+            append(buffer);
+        }
+
+        List<Long> sequences = new ArrayList<>();
+        long cursor = 0;
+        OrderLogPage page;
+        do {
+            page = buffer.read(cursor, 3);
+            page.events().forEach(e -> sequences.add(e.sequence()));
+            cursor = page.nextSequence();
+        } while (page.hasMore());
+
+        assertEquals(List.of(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L), sequences);
+    }
+
+    @Test
+    void whenManyThreadsAppend_thenEverySequenceIsPublishedOnce() throws InterruptedException {
+        OrderLogRingBuffer buffer = new OrderLogRingBuffer(1 << 14);
+        Thread[] writers = new Thread[8];
+        for (int t = 0; t < writers.length; t++) {
+            writers[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    append(buffer);
+                }
+            });
+            writers[t].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        OrderLogPage page = buffer.read(0, Integer.MAX_VALUE);
+        assertEquals(8000, page.events().size());
+        for (int i = 0; i < page.events().size(); i++) {
+            assertEquals(i, page.events().get(i).sequence());
+        }
+    }
+
+    @Test
+    void whenCapacityIsNotPowerOfTwo_thenConstructionFails() {
+        assertThrows(IllegalArgumentException.class, () -> new OrderLogRingBuffer(100));
+    }
+}
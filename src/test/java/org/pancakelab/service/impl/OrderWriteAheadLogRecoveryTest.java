@@ -0,0 +1,62 @@
+package org.pancakelab.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.pancakelab.model.Ingredient;
+import org.pancakelab.service.OrderService;
+import org.pancakelab.service.PancakeService;
+import org.pancakelab.service.ServiceFactory;
+import org.pancakelab.util.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Measures how long startup takes to replay one million logged mutations.
+ */
+public class OrderWriteAheadLogRecoveryTest {
+    private static final int ORDERS = 100_000;
+    // create, 3 pancakes, 4 ingredients, 1 ingredient removal, complete
+    private static final int MUTATIONS_PER_ORDER = 10;
+
+    @Test
+    void whenReplayingOneMillionMutations_thenRecoveryTimeIsReported(@TempDir Path directory) throws IOException {
+        long writeStart = System.nanoTime();
+        try (ServiceFactory services = new ServiceFactory(OrderWriteAheadLog.open(directory, false))) {
+            OrderService orders = services.getOrderService();
+            PancakeService pancakes = services.getPancakeService();
+            for (int i = 0; i < ORDERS; i++) {
+                UUID orderId = orders.createOrder(i % 50, i % 1000).getId();
+                UUID first = pancakes.createPancake(orderId);
+                UUID second = pancakes.createPancake(orderId);
+                pancakes.createPancake(orderId);
+                pancakes.addIngredientToPancake(orderId, first, new Ingredient("Dark Chocolate"));
+                UUID removed = pancakes.addIngredientToPancake(orderId, first, new Ingredient("Hazelnuts")).getId();
+                pancakes.addIngredientToPancake(orderId, second, new Ingredient("Milk Chocolate"));
+                pancakes.addIngredientToPancake(orderId, second, new Ingredient("Berries"));
+                pancakes.removeIngredientFromPancake(orderId, first, removed);
+                orders.completeOrder(orderId);
+            }
+        }
+        long writeMillis = (System.nanoTime() - writeStart) / 1_000_000;
+
+        long recoveryStart = System.nanoTime();
+        OrderWriteAheadLog wal = OrderWriteAheadLog.open(directory, false);
+        try (ServiceFactory services = new ServiceFactory(wal)) {
+            long recoveryMillis = (System.nanoTime() - recoveryStart) / 1_000_000;
+            Logger.info("WAL recovery: %d records (%d MB) replayed in %d ms (written in %d ms)",
+                    wal.getRecoveredRecords(), Files.size(directory.resolve("wal-000001.log")) >> 20, recoveryMillis, writeMillis);
+
+            assertEquals((long) ORDERS * MUTATIONS_PER_ORDER, wal.getRecoveredRecords());
+            assertEquals(ORDERS, services.getOrderService().getAllOrders().size());
+            services.getOrderService().getAllOrders().forEach(order -> {
+                assertEquals(3, order.getPancakes().size());
+                assertEquals(3, order.getPancakes().stream().mapToInt(p -> p.ingredients().size()).sum());
+            });
+        }
+    }
+}
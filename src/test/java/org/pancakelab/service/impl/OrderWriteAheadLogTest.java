@@ -0,0 +1,181 @@
+package org.pancakelab.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.pancakelab.model.Ingredient;
+import org.pancakelab.model.Order;
+import org.pancakelab.model.OrderState;
+import org.pancakelab.model.Pancake;
+import org.pancakelab.service.OrderService;
+import org.pancakelab.service.PancakeService;
+import org.pancakelab.service.ServiceFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderWriteAheadLogTest {
+
+    @Test
+    void whenReopened_thenOrdersAreRebuiltWithTheirOriginalIds(@TempDir Path directory) throws IOException {
+        UUID openId;
+        UUID preparedId;
+        UUID pancakeId;
+        UUID keptIngredientId;
+        UUID cancelledId;
+        try (ServiceFactory services = new ServiceFactory(OrderWriteAheadLog.open(directory, false))) {
+            OrderService orders = services.getOrderService();
+            PancakeService pancakes = services.getPancakeService();
+            Order open = orders.createOrder(1, 101);
+            openId = open.getId();
+            pancakeId = pancakes.createPancake(openId);
+            UUID removedPancakeId = pancakes.createPancake(openId);
+            keptIngredientId = pancakes.addIngredientToPancake(openId, pancakeId, new Ingredient("Dark Chocolate")).getId();
+            UUID removedIngredientId = pancakes.addIngredientToPancake(openId, pancakeId, new Ingredient("Hazelnuts")).getId();
+            pancakes.removeIngredientFromPancake(openId, pancakeId, removedIngredientId);
+            pancakes.removePancake(openId, removedPancakeId);
+
+            preparedId = orders.createOrder(2, 202).getId();
+            pancakes.createPancake(preparedId);
+            orders.completeOrder(preparedId);
+            orders.prepareOrder(preparedId);
+
+            cancelledId = orders.createOrder(3, 303).getId();
+            orders.cancelOrder(cancelledId);
+            UUID deliveredId = orders.createOrder(4, 404).getId();
+            orders.completeOrder(deliveredId);
+            orders.prepareOrder(deliveredId);
+            orders.startDelivery(deliveredId);
+        }
+
+        try (ServiceFactory services = new ServiceFactory(OrderWriteAheadLog.open(directory, false))) {
+            OrderService orders = services.getOrderService();
+            assertEquals(2, orders.getAllOrders().size());
+            assertTrue(orders.isOrderNotFound(cancelledId));
+
+            Order open = orders.getOrder(openId).orElseThrow();
+            assertEquals(1, open.getBuilding());
+            assertEquals(101, open.getRoom());
+            assertEquals(OrderState.OPEN, open.getState());
+            List<Pancake> pancakes = open.getPancakes();
+            assertEquals(1, pancakes.size());
+            assertEquals(pancakeId, pancakes.get(0).getId());
+            assertEquals(1, pancakes.get(0).ingredients().size());
+            assertEquals(keptIngredientId, pancakes.get(0).ingredients().get(0).getId());
+            assertEquals("Dark Chocolate", pancakes.get(0).ingredients().get(0).getName());
+
+            Order prepared = orders.getOrder(preparedId).orElseThrow();
+            assertEquals(OrderState.PREPARED, prepared.getState());
+            assertEquals(1, prepared.getPancakes().size());
+            assertEquals(List.of(prepared), orders.getOrdersByState(OrderState.PREPARED));
+
+            // The recovered store keeps logging
+            services.getPancakeService().createPancake(openId);
+        }
+
+        try (ServiceFactory services = new ServiceFactory(OrderWriteAheadLog.open(directory, false))) {
+            assertEquals(2, services.getOrderService().getOrder(openId).orElseThrow().getPancakes().size());
+        }
+    }
+
+    @Test
+    void whenTailIsTorn_thenIntactRecordsAreRecoveredAndTheTailIsTruncated(@TempDir Path directory) throws IOException {
+        UUID orderId;
+        try (ServiceFactory services = new ServiceFactory(OrderWriteAheadLog.open(directory, true))) {
+            orderId = services.getOrderService().createOrder(5, 6).getId();
+        }
+        Path file = directory.resolve("wal-000001.log");
+        long intactSize = Files.size(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.APPEND)) {
+            // Header of a record whose payload never made it to disk
+            channel.write(ByteBuffer.allocate(12).putInt(40).putInt(1234).putInt(7).flip());
+        }
+
+        try (OrderWriteAheadLog wal = OrderWriteAheadLog.open(directory, false)) {
+            List<Order> recovered = wal.takeRecoveredOrders();
+            assertEquals(1, recovered.size());
+            assertEquals(orderId, recovered.get(0).getId());
+            assertEquals(1, wal.getRecoveredRecords());
+        }
+        assertEquals(intactSize, Files.size(file));
+    }
+
+    @Test
+    void whenAppendingThreadIsInterrupted_thenTheLogKeepsAcceptingAppends(@TempDir Path directory) throws IOException {
+        UUID interruptedId;
+        UUID laterId;
+        try (ServiceFactory services = new ServiceFactory(OrderWriteAheadLog.open(directory, true))) {
+            OrderService orders = services.getOrderService();
+            // What TimeoutHandler does to a request that overruns its deadline
+            Thread.currentThread().interrupt();
+            try {
+                interruptedId = orders.createOrder(1, 1).getId();
+                assertTrue(Thread.currentThread().isInterrupted());
+            } finally {
+                Thread.interrupted();
+            }
+            laterId = orders.createOrder(2, 2).getId();
+            services.getPancakeService().createPancake(laterId);
+        }
+
+        try (OrderWriteAheadLog wal = OrderWriteAheadLog.open(directory, false)) {
+            assertEquals(List.of(interruptedId, laterId), wal.takeRecoveredOrders().stream().map(Order::getId).toList());
+            assertEquals(3, wal.getRecoveredRecords());
+        }
+    }
+
+    @Test
+    void whenSnapshotIsTaken_thenOldSegmentsAreDroppedAndTheTailIsReplayedOnTop(@TempDir Path directory) throws IOException {
+        UUID keptId;
+        UUID pancakeId;
+        UUID removedPancakeId;
+        UUID deletedId;
+        UUID lateId;
+        OrderWriteAheadLog wal = OrderWriteAheadLog.open(directory, false);
+        try (ServiceFactory services = new ServiceFactory(wal)) {
+            OrderServiceImpl orders = (OrderServiceImpl) services.getOrderService();
+            PancakeService pancakes = services.getPancakeService();
+            keptId = orders.createOrder(1, 1).getId();
+            pancakeId = pancakes.createPancake(keptId);
+            removedPancakeId = pancakes.createPancake(keptId);
+            pancakes.addIngredientToPancake(keptId, pancakeId, new Ingredient("Dark Chocolate"));
+            deletedId = orders.createOrder(2, 2).getId();
+
+            // A writer racing the snapshot: its change lands in the new segment and in the image
+            wal.snapshot(() -> {
+                pancakes.addIngredientToPancake(keptId, pancakeId, new Ingredient("Hazelnuts"));
+                return orders.getAllOrders();
+            });
+
+            pancakes.removePancake(keptId, removedPancakeId);
+            orders.deleteOrder(deletedId);
+            lateId = orders.createOrder(3, 3).getId();
+            orders.completeOrder(keptId);
+        }
+        assertFalse(Files.exists(directory.resolve("wal-000001.log")));
+        assertTrue(Files.exists(directory.resolve("snapshot-000002.bin")));
+
+        OrderWriteAheadLog reopened = OrderWriteAheadLog.open(directory, false);
+        try (ServiceFactory services = new ServiceFactory(reopened)) {
+            OrderService orders = services.getOrderService();
+            assertEquals(2, reopened.getSnapshotOrders());
+            assertEquals(5, reopened.getRecoveredRecords());
+            assertEquals(2, orders.getAllOrders().size());
+            assertTrue(orders.isOrderNotFound(deletedId));
+            assertTrue(orders.getOrder(lateId).isPresent());
+
+            Order kept = orders.getOrder(keptId).orElseThrow();
+            assertEquals(OrderState.COMPLETED, kept.getState());
+            assertEquals(1, kept.getPancakes().size());
+            assertEquals(List.of("Dark Chocolate", "Hazelnuts"), kept.getPancakes().get(0).ingredients().stream()
+                    .map(Ingredient::getName).toList());
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package org.pancakelab.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.logging.Formatter;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncLogHandlerTest {
+
+    @Test
+    void whenRecordsArePublished_thenTheyAreWrittenInOrderByClose() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AsyncLogHandler handler = handler(out, 16, AsyncLogHandler.OverflowPolicy.BLOCK);
+
+        for (int i = 0; i < 1000; i++) {
+            handler.publish(new LogRecord(Level.INFO, "line " + i));
+        }
+        handler.close();
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(1000, lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            assertEquals("INFO line " + i, lines[i]);
+        }
+        assertEquals(0, handler.getDroppedRecords());
+    }
+
+    @Test
+    void whenFlushing_thenRecordsTheDrainThreadAlreadyTookAreWrittenToo() {
+        SlowOutputStream out = new SlowOutputStream();
+        AsyncLogHandler handler = handler(out, 1024, AsyncLogHandler.OverflowPolicy.BLOCK);
+
+        for (int i = 0; i < 500; i++) {
+            handler.publish(new LogRecord(Level.INFO, "line " + i));
+        }
+        handler.flush();
+
+        assertEquals(500, out.toString().split("\n").length);
+        handler.close();
+    }
+
+    @Test
+    void whenQueueIsFullWithDropDebug_thenInfoIsDroppedAndWarningsWait() throws Exception {
+        BlockingOutputStream out = new BlockingOutputStream();
+        AsyncLogHandler handler = handler(out, 4, AsyncLogHandler.OverflowPolicy.DROP_DEBUG);
+        handler.publish(new LogRecord(Level.INFO, "held"));
+        out.writing.await();
+
+        for (int i = 0; i < 10; i++) {
+            handler.publish(new LogRecord(Level.INFO, "info " + i));
+        }
+        assertEquals(6, handler.getDroppedRecords());
+
+        Thread warner = new Thread(() -> handler.publish(new LogRecord(Level.WARNING, "warning")));
+        warner.start();
+        warner.join(200);
+        assertTrue(warner.isAlive(), "warning should wait for room");
+
+        out.release.countDown();
+        warner.join();
+        handler.close();
+        assertTrue(out.toString().endsWith("WARNING warning\n"));
+        assertEquals(6, handler.getDroppedRecords());
+    }
+
+    @Test
+    void whenQueueIsFullWithDropOldest_thenTheNewestRecordsSurvive() throws Exception {
+        BlockingOutputStream out = new BlockingOutputStream();
+        AsyncLogHandler handler = handler(out, 4, AsyncLogHandler.OverflowPolicy.DROP_OLDEST);
+        handler.publish(new LogRecord(Level.INFO, "held"));
+        out.writing.await();
+
+        for (int i = 0; i < 10; i++) {
+            handler.publish(new LogRecord(Level.INFO, "info " + i));
+        }
+        out.release.countDown();
+        handler.close();
+
+        assertEquals(6, handler.getDroppedRecords());
+        assertEquals("INFO held\nINFO info 6\nINFO info 7\nINFO info 8\nINFO info 9\n", out.toString());
+    }
+
+    private static AsyncLogHandler handler(OutputStream out, int capacity, AsyncLogHandler.OverflowPolicy policy) {
+        AsyncLogHandler handler = new AsyncLogHandler(out, capacity, policy);
+        handler.setFormatter(new Formatter() {
+            @Override
+            public String format(LogRecord record) {
+                return record.getLevel() + " " + record.getMessage() + "\n";
+            }
+        });
+        return handler;
+    }
+
+    /**
+     * Takes a while over every write, so the queue is empty long before the last batch
+     * is written.
+     */
+    private static class SlowOutputStream extends OutputStream {
+        private final ByteArrayOutputStream written = new ByteArrayOutputStream();
+
+        @Override
+        public synchronized void write(int b) {
+            written.write(b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (this) {
+                written.write(bytes, offset, length);
+            }
+        }
+
+        @Override
+        public synchronized String toString() {
+            return written.toString(StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Holds the first write until released, so the queue behind it fills up.
+     */
+    private static class BlockingOutputStream extends OutputStream {
+        final CountDownLatch writing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        private final ByteArrayOutputStream written = new ByteArrayOutputStream();
+
+        @Override
+        public synchronized void write(int b) {
+            written.write(b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            writing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (this) {
+                written.write(bytes, offset, length);
+            }
+        }
+
+        @Override
+        public synchronized String toString() {
+            return written.toString(StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.pancakelab.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoggerTest {
+
+    @AfterEach
+    void restoreLevel() {
+        Logger.setLevel("INFO");
+    }
+
+    @Test
+    void whenLevelIsDisabled_thenMessagesAreNeverFormatted() {
+        Logger.setLevel("WARN");
+        AtomicInteger formatted = new AtomicInteger();
+        Object argument = new Object() {
+            @Override
+            public String toString() {
+                formatted.incrementAndGet();
+                return "argument";
+            }
+        };
+
+        Logger.info("Incoming request: %s", argument);
+        Logger.debug("Debug detail: %s", argument);
+        Logger.info(() -> "supplied " + formatted.incrementAndGet());
+
+        assertFalse(Logger.isInfoEnabled());
+        assertTrue(Logger.isWarnEnabled());
+        assertEquals(0, formatted.get());
+    }
+
+    @Test
+    void whenSettingLevelByName_thenMatchingLevelsAreEnabled() {
+        Logger.setLevel("debug");
+        assertTrue(Logger.isDebugEnabled());
+
+        Logger.setLevel("OFF");
+        assertFalse(Logger.isWarnEnabled());
+
+        assertThrows(IllegalArgumentException.class, () -> Logger.setLevel("verbose"));
+    }
+}